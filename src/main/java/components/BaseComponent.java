@@ -1,15 +1,23 @@
 package components;
 
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
-import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.pagefactory.Annotations;
 
 import logging.LoggingManager;
 import utilities.ActionUtil;
+import utilities.CachingElementLocatorFactory;
 import utilities.DriverFactory;
-import wait.WaitUtil;
+import utilities.ElementCheck;
+import utilities.WaitEngine;
 
 /**
  * The BaseComponent class represents a base component object within a web page.
@@ -22,7 +30,10 @@ public abstract class BaseComponent {
     protected WebElement root;
     
     // Utility for waiting for specific conditions or elements.
-    protected WaitUtil waitUtil;
+    protected WaitEngine waitUtil;
+
+    // @FindBy locators per component class, read once so batched checks do not re-parse annotations.
+    private static final Map<Class<?>, Map<Field, By>> LOCATORS = new ConcurrentHashMap<>();
 
     /**
      * Constructor to initialize the BaseComponent with a root WebElement.
@@ -31,11 +42,10 @@ public abstract class BaseComponent {
      */
     public BaseComponent(WebElement root) {
         this.root = root;
-        this.waitUtil = new WaitUtil(DriverFactory.getDriver());
+        this.waitUtil = new WaitEngine(DriverFactory.getDriver());
         
-        // Use a custom ElementLocatorFactory to locate elements within the scope of the root element.
-        ElementLocatorFactory factory = (field) -> new DefaultElementLocator(root, field);
-        PageFactory.initElements(factory, this);
+        // Locate elements within the scope of the root element, keeping handles until the DOM changes.
+        CachingElementLocatorFactory.initElements(root, this);
     }
 
     /**
@@ -51,6 +61,98 @@ public abstract class BaseComponent {
             return false;
         }
     }
+    /**
+     * Checks which of several elements of this component are visible, in a single browser round trip.
+     * The elements must be {@code @FindBy} fields of this component; their locators are evaluated under the root.
+     *
+     * @param elements The elements to check.
+     * @return Whether each element is visible, in the order given.
+     */
+    public boolean[] areVisible(WebElement... elements) {
+        return waitUtil.check(root, visibilityChecks(elements));
+    }
+
+    /**
+     * Waits until at least one of several elements of this component is visible, checking all of them in one
+     * browser round trip per poll. The elements must be {@code @FindBy} fields of this component.
+     * <p>
+     * The elements are checked once before any wait is set up, so when one is already visible, which is the
+     * common case, the call costs a single round trip.
+     *
+     * @param timeout  The timeout in seconds.
+     * @param elements The elements to wait for, in order of preference.
+     * @return The index of the first visible element in the order given, or -1 if none became visible in time.
+     */
+    public int firstVisible(int timeout, WebElement... elements) {
+        ElementCheck[] checks = visibilityChecks(elements);
+        int first = indexOfFirst(waitUtil.check(root, checks));
+        if (first >= 0) {
+            return first;
+        }
+        try {
+            return indexOfFirst(waitUtil.waitForAny(root, timeout, checks));
+        } catch (TimeoutException e) {
+            LoggingManager.info("None of " + elements.length + " elements became visible within " + timeout + "s");
+        }
+        return -1;
+    }
+
+    private static int indexOfFirst(boolean[] visible) {
+        for (int i = 0; i < visible.length; i++) {
+            if (visible[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds visibility checks from the {@code @FindBy} locators of the given element fields.
+     */
+    private ElementCheck[] visibilityChecks(WebElement... elements) {
+        ElementCheck[] checks = new ElementCheck[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            checks[i] = ElementCheck.visible(locatorOf(elements[i]));
+        }
+        return checks;
+    }
+
+    /**
+     * Finds the {@code @FindBy} locator of an element field of this component.
+     *
+     * @throws IllegalArgumentException If the element is not an annotated field of this component.
+     */
+    private By locatorOf(WebElement element) {
+        for (Map.Entry<Field, By> entry : locators(getClass()).entrySet()) {
+            try {
+                if (entry.getKey().get(this) == element) {
+                    return entry.getValue();
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Failed to read field " + entry.getKey().getName(), e);
+            }
+        }
+        throw new IllegalArgumentException("Element is not a @FindBy field of " + getClass().getSimpleName());
+    }
+
+    /**
+     * Gets the locators of the annotated WebElement fields of a component class and its superclasses.
+     */
+    private static Map<Field, By> locators(Class<?> type) {
+        return LOCATORS.computeIfAbsent(type, t -> {
+            Map<Field, By> locators = new LinkedHashMap<>();
+            for (Class<?> c = t; c != BaseComponent.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.getType() == WebElement.class && field.isAnnotationPresent(FindBy.class)) {
+                        field.setAccessible(true);
+                        locators.put(field, new Annotations(field).buildBy());
+                    }
+                }
+            }
+            return locators;
+        });
+    }
+
     /**
      * Clicks on the specified web element.
      * Waits for the element to be clickable before performing the click action.
@@ -5,7 +5,6 @@ import java.math.RoundingMode;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import logging.LoggingManager;
@@ -39,13 +38,12 @@ public class CartItem extends BaseComponent {
 
     /**
      * Constructor to initialize the CartItem component.
-     * Initializes the WebElements using PageFactory and sets the initial attributes of the cart item.
+     * The product name and price are read from the WebElement when first requested.
      * 
      * @param root The root WebElement of the product component.
      */
     public CartItem(WebElement root) {
         super(root);
-        PageFactory.initElements(root, this);
     }
     
     /**
@@ -53,17 +51,8 @@ public class CartItem extends BaseComponent {
      * Retrieves the product name and price from the WebElement and handles any parsing or retrieval issues.
      */
     public void initializeCartItem() {
-    	if(this.productName !=null && this.price !=null) {
-    		return;
-    	}
-        try {
-            this.productName = productNameElement.getText();
-            this.price = parsePrice(priceElement.getText());
-        } catch (Exception e) {
-            LoggingManager.info("Error initializing CartItem: " + e.getMessage());
-            this.productName = "Unknown";
-            this.price = BigDecimal.ZERO;
-        }
+        getProductName();
+        getPrice();
     }
 
     public boolean isVisible() {
@@ -110,6 +99,14 @@ public class CartItem extends BaseComponent {
      * @return The name of the product.
      */
     public String getProductName() {
+        if (productName == null) {
+            try {
+                this.productName = productNameElement.getText();
+            } catch (Exception e) {
+                LoggingManager.info("Error reading the CartItem name: " + e.getMessage());
+                this.productName = "Unknown";
+            }
+        }
         return productName;
     }
 
@@ -119,6 +116,14 @@ public class CartItem extends BaseComponent {
      * @return The price of the product as a BigDecimal.
      */
     public BigDecimal getPrice() {
+        if (price == null) {
+            try {
+                this.price = parsePrice(priceElement.getText());
+            } catch (Exception e) {
+                LoggingManager.info("Error reading the CartItem price: " + e.getMessage());
+                this.price = BigDecimal.ZERO;
+            }
+        }
         return price;
     }
 
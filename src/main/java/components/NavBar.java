@@ -9,9 +9,9 @@ import org.openqa.selenium.ElementClickInterceptedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 import logging.LoggingManager;
+import utilities.CachingElementLocatorFactory;
 import utilities.EventListener;
 import utilities.ActionUtil;
 import utilities.DriverFactory;
@@ -46,7 +46,7 @@ public class NavBar extends BaseComponent {
     private WebElement homeLink;
 
     
-    private static ActionUtil actionUtil;
+    private final ActionUtil actionUtil;
     /**
      * Constructor to initialize the navigation bar component.
      *
@@ -56,7 +56,7 @@ public class NavBar extends BaseComponent {
         
     	super(root);
         actionUtil =new ActionUtil(DriverFactory.getDriver());
-        PageFactory.initElements(root, this);
+        CachingElementLocatorFactory.initElements(root, this);
         
         initializeNavMap();
     }
@@ -1,19 +1,22 @@
 package components;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import logging.LoggingManager;
 import utilities.EventListener;
-import utilities.DriverFactory;
-import wait.WaitUtil;
 
 /**
  * Represents a product card component on the page.
@@ -21,17 +24,49 @@ import wait.WaitUtil;
  */
 public class Product extends BaseComponent {
 
-    @FindBy(className = "product-title")
+    private static final String NAME_CSS = ".product-title";
+    private static final String PRICE_CSS = "[data-ref='price'] span.currency.currency-module_currency_29IIm";
+    private static final String RATING_CSS = ".rating-module_rating-wrapper_3Cogb";
+    private static final String REVIEWS_CSS = ".rating-module_review-count_3g6zO";
+    private static final String SPONSORED_CSS = ".product-card-module_sponsored-listing-badge_1nHiP";
+    private static final Pattern PRODUCT_ID = Pattern.compile("PLID\\d+");
+
+    /**
+     * Reads the details of every product card matching arguments[0] in one pass over the page. Each entry
+     * holds the card element, its name, price, rating and review count texts, whether it shows the sponsored
+     * badge and the PLID product id from the card's link.
+     */
+    private static final String EXTRACT_SCRIPT =
+            "var selectors = arguments;"
+            + "function text(card, selector) {"
+            + "  var element = card.querySelector(selector);"
+            + "  return element ? element.innerText.trim() : null;"
+            + "}"
+            + "return Array.prototype.map.call(document.querySelectorAll(selectors[0]), function (card) {"
+            + "  var link = card.querySelector(\"a[href*='PLID']\");"
+            + "  var id = link ? /PLID\\d+/.exec(link.getAttribute('href')) : null;"
+            + "  return {"
+            + "    card: card,"
+            + "    name: text(card, selectors[1]),"
+            + "    price: text(card, selectors[2]),"
+            + "    rating: text(card, selectors[3]),"
+            + "    reviews: text(card, selectors[4]),"
+            + "    sponsored: !!card.querySelector(selectors[5]),"
+            + "    id: id ? id[0] : null"
+            + "  };"
+            + "});";
+
+    @FindBy(css = NAME_CSS)
     public WebElement productName;
     
     @FindBy (className ="product-thumb-container")
     public WebElement thumbImage;
     
-    @FindBy(css = "[data-ref='price'] span.currency.currency-module_currency_29IIm")
+    @FindBy(css = PRICE_CSS)
     private WebElement productPrice;
 
 
-    public By sponsoredProductBy = By.className("product-card-module_sponsored-listing-badge_1nHiP");
+    public By sponsoredProductBy = By.cssSelector(SPONSORED_CSS);
     public By optionsMenuBy = By.cssSelector(".select-dropdown-module_select-dropdown_3Rysq");
     public By optionsListBy = By.className("select-list-item");
     public By cartAddButtonBy = By.cssSelector("button.add-to-cart-button-module_add-to-cart-button_1a9gT[data-ref='add-to-cart-button']"); // a list
@@ -52,51 +87,114 @@ public class Product extends BaseComponent {
     @FindBy(css = "div.buybox-button button.wishlist-button")
     public WebElement addToWishlistBtn;
 
-    @FindBy(className = "rating-module_rating-wrapper_3Cogb")
+    @FindBy(css = RATING_CSS)
     private WebElement rating;
 
-    @FindBy(className = "rating-module_review-count_3g6zO")
+    @FindBy(css = REVIEWS_CSS)
     private WebElement reviews;
 
     @FindBy(css = "a.wish")
     private WebElement goToWishlist;
-    By cartBtn = By.cssSelector("button.add-to-cart-button-module_add-to-cart-button_1a9gT");
-    
 
-    WebElement cartBtnElement =DriverFactory.getDriver().findElement(cartBtn);
+    @FindBy(css = "a[href*='PLID']")
+    private List<WebElement> productLinks;
+
+    @FindBy(css = SPONSORED_CSS)
+    private List<WebElement> sponsoredBadges;
     
     private boolean isAddedToCart = false;
     private int itemsInCart = 0;
-    private String product_name = "";
-    private String product_type = "search";
+
+    // Product details are read from the card on first access and kept, so filters only pay for what they read.
+    private String product_name;
+    private String product_type;
+    private String productId;
+    private boolean productIdLoaded;
+    private boolean sponsored;
+    private boolean sponsoredLoaded;
     private BigDecimal price;
+    private boolean priceLoaded;
     private RatingDetails ratingDetails;
-    private WaitUtil waitUtil = new WaitUtil(DriverFactory.getDriver());
 
     /**
-     * Constructor to initialize the product component.
+     * Constructor to initialize the product component. The product details are read when first requested.
      * 
      * @param root The root WebElement of the product component.
      */
     public Product(WebElement root) {
         super(root);
-        PageFactory.initElements(root, this);
     }
 
     /**
-     * Initializes product details.
+     * Initializes all product details at once.
      */
     public Product initializeProductDetails() {
-        setName();
+        getName();
         LoggingManager.info("Done initializing product name");
-        setPrice();
+        getPrice();
         LoggingManager.info("Done initializing product price");
-        setRatingDetails();
+        getRatingDetails();
         LoggingManager.info("Done initializing product details");
-        setProductType("sponsored");
+        getProductType();
+        isSponsored();
+        getProductId();
         return this;
     }
 
+    /**
+     * Builds a Product for every product card on the page from a single script call, instead of reading
+     * each card's name, price and rating with separate WebDriver commands.
+     *
+     * @param driver       The WebDriver instance showing the product listing.
+     * @param cardSelector The CSS selector of the product cards.
+     * @return The products in page order.
+     */
+    public static List<Product> extractAll(WebDriver driver, String cardSelector) {
+        List<?> cards = (List<?>) ((JavascriptExecutor) driver).executeScript(EXTRACT_SCRIPT,
+                cardSelector, NAME_CSS, PRICE_CSS, RATING_CSS, REVIEWS_CSS, SPONSORED_CSS);
+        List<Product> products = new ArrayList<>(cards.size());
+        for (Object card : cards) {
+            Map<?, ?> details = (Map<?, ?>) card;
+            products.add(new Product((WebElement) details.get("card")).hydrate(details));
+        }
+        LoggingManager.info("Extracted details of " + products.size() + " products in one script call");
+        return products;
+    }
+
+    /**
+     * Sets the product details from the values read by {@link #extractAll(WebDriver, String)}.
+     *
+     * @param details The card's name, price, rating, reviews, sponsored and id values.
+     * @return The current Product instance.
+     */
+    private Product hydrate(Map<?, ?> details) {
+        String nameText = (String) details.get("name");
+        this.product_name = nameText == null || nameText.isEmpty() ? "Unknown" : nameText;
+        String priceText = (String) details.get("price");
+        if (priceText != null) {
+            parsePrice(priceText);
+        } else {
+            LoggingManager.warn("Product price not found for '" + product_name + "'");
+        }
+        String ratingText = (String) details.get("rating");
+        if (ratingText != null) {
+            parseRating(ratingText);
+            String reviewsText = (String) details.get("reviews");
+            String digits = reviewsText == null ? "" : reviewsText.replaceAll("[^0-9]", "");
+            if (!digits.isEmpty()) {
+                ratingDetails = new RatingDetails(ratingDetails.getRating(), Integer.parseInt(digits));
+            }
+        } else {
+            ratingDetails = new RatingDetails(0.0f, 0);
+        }
+        this.priceLoaded = true;
+        this.productId = (String) details.get("id");
+        this.productIdLoaded = true;
+        this.sponsored = Boolean.TRUE.equals(details.get("sponsored"));
+        this.sponsoredLoaded = true;
+        return setProductType("sponsored");
+    }
+
     /**
      * Sets the product name.
      * 
@@ -115,7 +213,7 @@ public class Product extends BaseComponent {
             }
         } catch (Exception e) {
             LoggingManager.error("Failed to retrieve product name.", e);
-            
+            this.product_name = "";
         }
         return this;
     }
@@ -127,6 +225,9 @@ public class Product extends BaseComponent {
      * @return The product price as a BigDecimal.
      */
     public BigDecimal getPrice() {
+        if (!priceLoaded) {
+            setPrice();
+        }
         return this.price;
     }
 
@@ -136,6 +237,9 @@ public class Product extends BaseComponent {
      * @return An instance of RatingDetails containing the rating and the number of raters.
      */
     public RatingDetails getRatingDetails() {
+        if (ratingDetails == null) {
+            setRatingDetails();
+        }
         return this.ratingDetails;
     }
 
@@ -145,6 +249,9 @@ public class Product extends BaseComponent {
      * @return The product name as a String.
      */
     public String getName() {
+        if (product_name == null) {
+            setName();
+        }
         return this.product_name;
     }
 
@@ -177,26 +284,38 @@ public class Product extends BaseComponent {
     public Product setPrice() {
         try {
             if (productPrice != null) {
-                String priceText = productPrice.getText().replace("R", "").replace(",", "").trim();
-                LoggingManager.info("Extracted price text: '" + priceText + "'");
-
-                // Check if the priceText is not empty and a valid number
-                if (!priceText.isEmpty() && isNumeric(priceText)) {
-                    this.price = new BigDecimal(priceText).setScale(2, RoundingMode.HALF_UP);
-                    LoggingManager.info("Successfully set the price");
-                } else {
-                    LoggingManager.warn("Price text is empty or not a valid number: '" + priceText + "'");
-                }
+                parsePrice(productPrice.getText());
             } else {
                 LoggingManager.warn("Product price element is not displayed or null.");
             }
         } catch (NumberFormatException e) {
             LoggingManager.error("Failed to parse price: '" + productPrice.getText() + "'", e);
+        } catch (NoSuchElementException e) {
+            LoggingManager.warn("Product price element not found.");
         }
+        priceLoaded = true;
         LoggingManager.info("Returning the Product..");
         return this;
     }
 
+    /**
+     * Parses a price text such as "R 1,299" into the product price.
+     *
+     * @param text The price text.
+     */
+    private void parsePrice(String text) {
+        String priceText = text.replace("R", "").replace(",", "").trim();
+        LoggingManager.info("Extracted price text: '" + priceText + "'");
+
+        // Check if the priceText is not empty and a valid number
+        if (!priceText.isEmpty() && isNumeric(priceText)) {
+            this.price = new BigDecimal(priceText).setScale(2, RoundingMode.HALF_UP);
+            LoggingManager.info("Successfully set the price");
+        } else {
+            LoggingManager.warn("Price text is empty or not a valid number: '" + priceText + "'");
+        }
+    }
+
     /**
      * Checks if a string represents a numeric value.
      * 
@@ -222,27 +341,12 @@ public class Product extends BaseComponent {
         try {
             if (rating != null) {
             	LoggingManager.info("getting the rating");
-                String ratingText = rating.getAttribute("innerText").trim();
-                LoggingManager.info("Raw rating text: " + ratingText);
-                
-                String[] parts = ratingText.split("\\s*\\(");
-                if (parts.length == 2) {
-                    float ratingValue = Float.parseFloat(parts[0].trim());
-                    int reviewsValue = Integer.parseInt(parts[1].replaceAll("[^0-9]", "").trim());
-                    ratingDetails = new RatingDetails(ratingValue, reviewsValue);
-                } else {
-                    LoggingManager.warn("Unexpected rating text format: " + ratingText);
-                    ratingDetails = new RatingDetails(0.0f, 0); // Default values if format is unexpected
-                }
+                parseRating(rating.getAttribute("innerText"));
             } else {
                 LoggingManager.warn("Rating element is null or not displayed.");
                 ratingDetails = new RatingDetails(0.0f, 0); // Default values if element is not present
             }
-        } catch (NumberFormatException | ArrayIndexOutOfBoundsException  e) {
-            
-        	LoggingManager.error("Failed to parse rating details.", e);
-            ratingDetails = new RatingDetails(0.0f, 0); // Default values on exception
-        }catch (NoSuchElementException e) {
+        } catch (NoSuchElementException e) {
             
         	LoggingManager.warn("Rating or review element not found. This product might not have a rating.");
             ratingDetails = new RatingDetails(0.0f, 0); // Or set to a default value
@@ -251,12 +355,67 @@ public class Product extends BaseComponent {
         return this;
     }
 
+    /**
+     * Parses a rating text such as "4.5 (123)" into the rating details. Unexpected text gives a rating of 0.
+     *
+     * @param text The rating text.
+     */
+    private void parseRating(String text) {
+        String ratingText = text.trim();
+        LoggingManager.info("Raw rating text: " + ratingText);
+        try {
+            String[] parts = ratingText.split("\\s*\\(");
+            if (parts.length == 2) {
+                float ratingValue = Float.parseFloat(parts[0].trim());
+                int reviewsValue = Integer.parseInt(parts[1].replaceAll("[^0-9]", "").trim());
+                ratingDetails = new RatingDetails(ratingValue, reviewsValue);
+            } else {
+                LoggingManager.warn("Unexpected rating text format: " + ratingText);
+                ratingDetails = new RatingDetails(0.0f, 0); // Default values if format is unexpected
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            LoggingManager.error("Failed to parse rating details.", e);
+            ratingDetails = new RatingDetails(0.0f, 0); // Default values on exception
+        }
+    }
+
+    /**
+     * Gets the product id.
+     * 
+     * @return The PLID from the product's link, or null if the card has no product link.
+     */
+    public String getProductId() {
+        if (!productIdLoaded) {
+            String href = productLinks.isEmpty() ? null : productLinks.get(0).getAttribute("href");
+            Matcher matcher = PRODUCT_ID.matcher(href == null ? "" : href);
+            productId = matcher.find() ? matcher.group() : null;
+            productIdLoaded = true;
+        }
+        return productId;
+    }
+
+    /**
+     * Checks whether the product card shows the sponsored listing badge.
+     * 
+     * @return True if the product is a sponsored listing.
+     */
+    public boolean isSponsored() {
+        if (!sponsoredLoaded) {
+            sponsored = !sponsoredBadges.isEmpty();
+            sponsoredLoaded = true;
+        }
+        return sponsored;
+    }
+
     /**
      * Gets the product type.
      * 
      * @return The product type as a String.
      */
     public String getProductType() {
+        if (product_type == null) {
+            product_type = "sponsored";
+        }
         return product_type;
     }
 
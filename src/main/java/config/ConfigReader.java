@@ -6,6 +6,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Properties;
+import java.util.function.Function;
 
 import logging.LoggingManager;
 
@@ -56,4 +57,50 @@ public class ConfigReader {
     public static String getProperty(String prop) {
         return properties.getProperty(prop);
     }
+
+    /**
+     * Retrieves the specified property as an int, falling back to the default when it is missing, empty or invalid.
+     * 
+     * @param prop The name of the property to retrieve.
+     * @param defaultValue The value to use when the property is missing, empty or invalid.
+     * @return The value of the property as an int.
+     */
+    public static int getInt(String prop, int defaultValue) {
+        return getNumber(prop, defaultValue, Integer::parseInt).intValue();
+    }
+
+    /**
+     * Retrieves the specified property as a long, falling back to the default when it is missing, empty or invalid.
+     * 
+     * @param prop The name of the property to retrieve.
+     * @param defaultValue The value to use when the property is missing, empty or invalid.
+     * @return The value of the property as a long.
+     */
+    public static long getLong(String prop, long defaultValue) {
+        return getNumber(prop, defaultValue, Long::parseLong).longValue();
+    }
+
+    /**
+     * Retrieves the specified property as a double, falling back to the default when it is missing, empty or invalid.
+     * 
+     * @param prop The name of the property to retrieve.
+     * @param defaultValue The value to use when the property is missing, empty or invalid.
+     * @return The value of the property as a double.
+     */
+    public static double getDouble(String prop, double defaultValue) {
+        return getNumber(prop, defaultValue, Double::parseDouble).doubleValue();
+    }
+
+    private static Number getNumber(String prop, Number defaultValue, Function<String, Number> parser) {
+        String value = properties.getProperty(prop);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            LoggingManager.warn("Invalid " + prop + " '" + value.trim() + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package data;
+
+/**
+ * ArraySheetTable is a {@link SheetTable} whose cells live on the heap in a jagged string array.
+ */
+final class ArraySheetTable extends SheetTable {
+
+    // Indexed by sheet row number; a null entry means the row does not exist in the sheet.
+    private final String[][] rows;
+
+    private final int columnSlots;
+
+    /**
+     * Creates a sheet table from already converted cell values.
+     *
+     * @param name             The name of the worksheet.
+     * @param rows             The cell values indexed by row and column. The array is kept, not copied.
+     * @param physicalRowCount The number of rows present in the worksheet.
+     */
+    ArraySheetTable(String name, String[][] rows, int physicalRowCount) {
+        super(name, physicalRowCount);
+        this.rows = rows;
+        int widest = 0;
+        for (String[] cells : rows) {
+            if (cells != null) {
+                widest = Math.max(widest, cells.length);
+            }
+        }
+        this.columnSlots = widest;
+    }
+
+    @Override
+    public int getRowSlots() {
+        return rows.length;
+    }
+
+    @Override
+    public int getColumnSlots() {
+        return columnSlots;
+    }
+
+    @Override
+    public String getCellValue(int row, int col) {
+        if (row < 0 || row >= rows.length || rows[row] == null) {
+            return null;
+        }
+        String[] cells = rows[row];
+        return col >= 0 && col < cells.length ? cells[col] : null;
+    }
+}
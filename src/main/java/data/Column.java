@@ -0,0 +1,22 @@
+package data;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field of a typed row to a sheet column by its header name.
+ * Headers are matched ignoring case, spaces and punctuation, so "Test Case ID" and "Test CaseID" are the same column.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Column {
+
+    /**
+     * The header of the column, as it appears in the first row of the sheet.
+     *
+     * @return The header name.
+     */
+    String value();
+}
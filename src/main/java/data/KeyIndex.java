@@ -0,0 +1,101 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KeyIndex maps the values of one or more key columns of a {@link SheetTable} to the rows that hold them.
+ * It is built once per sheet and column combination and never changes afterwards, so any number of
+ * threads can look keys up concurrently without locking.
+ */
+public final class KeyIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final int[] columns;
+
+    // Single-column keys are the cell string itself, composite keys are a List of the cell strings.
+    private final Map<Object, int[]> rows;
+
+    private KeyIndex(int[] columns, Map<Object, int[]> rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Indexes every row of a sheet whose key columns all hold a value.
+     *
+     * @param sheet   The sheet to index.
+     * @param columns The zero-based key columns.
+     * @return The index.
+     */
+    static KeyIndex build(SheetTable sheet, int... columns) {
+        Map<Object, List<Integer>> grouped = new HashMap<>();
+        String[] values = new String[columns.length];
+        for (int row = 0; row < sheet.getRowSlots(); row++) {
+            boolean complete = true;
+            for (int i = 0; i < columns.length && complete; i++) {
+                values[i] = sheet.getCellValue(row, columns[i]);
+                complete = values[i] != null;
+            }
+            if (complete) {
+                grouped.computeIfAbsent(key(values), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Map<Object, int[]> rows = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, list) -> rows.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        return new KeyIndex(columns.clone(), Collections.unmodifiableMap(rows));
+    }
+
+    /**
+     * Gets the rows whose key columns equal the given values, in sheet order.
+     *
+     * @param keyValues One value per key column.
+     * @return The matching row indexes; empty if there is no match.
+     * @throws IllegalArgumentException If the number of values does not match the number of key columns.
+     */
+    public int[] getRows(String... keyValues) {
+        if (keyValues.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " key values but got " + keyValues.length);
+        }
+        for (String value : keyValues) {
+            if (value == null) {
+                return NO_ROWS;
+            }
+        }
+        int[] matches = rows.get(key(keyValues));
+        return matches == null ? NO_ROWS : matches.clone();
+    }
+
+    /**
+     * Gets the first row whose key columns equal the given values.
+     *
+     * @param keyValues One value per key column.
+     * @return The row index, or -1 if there is no match.
+     */
+    public int getFirstRow(String... keyValues) {
+        int[] matches = getRows(keyValues);
+        return matches.length == 0 ? -1 : matches[0];
+    }
+
+    /**
+     * Gets the key columns of this index.
+     *
+     * @return A copy of the zero-based key columns.
+     */
+    public int[] getColumns() {
+        return columns.clone();
+    }
+
+    /**
+     * Builds the map key for a set of key values.
+     */
+    private static Object key(String[] values) {
+        return values.length == 1 ? values[0] : Arrays.asList(values.clone());
+    }
+}
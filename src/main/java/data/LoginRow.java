@@ -0,0 +1,84 @@
+package data;
+
+/**
+ * LoginRow is one test case from the "login form" sheet.
+ */
+public class LoginRow {
+
+    @Column("Test Case ID")
+    private String caseNum;
+
+    @Column("Email Address")
+    private String email;
+
+    @Column("Password")
+    private String password;
+
+    @Column("Expected Result")
+    private String expectedResult;
+
+    @Column("Execution Required")
+    private boolean executionRequired = true;
+
+    @Column("Description")
+    private String description;
+
+    /**
+     * Gets the test case identifier.
+     *
+     * @return The test case ID.
+     */
+    public String getCaseNum() {
+        return caseNum;
+    }
+
+    /**
+     * Gets the email address to log in with.
+     *
+     * @return The email address, or null if the cell is empty.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Gets the password to log in with.
+     *
+     * @return The password, or null if the cell is empty.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Gets the expected result, "Success" or the expected error message.
+     *
+     * @return The expected result.
+     */
+    public String getExpectedResult() {
+        return expectedResult;
+    }
+
+    /**
+     * Checks whether this test case should be executed.
+     *
+     * @return False only if the sheet marks the case "No".
+     */
+    public boolean isExecutionRequired() {
+        return executionRequired;
+    }
+
+    /**
+     * Gets the description of the test case.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return caseNum + " (" + description + ")";
+    }
+}
@@ -0,0 +1,70 @@
+package data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * MappedSheetTable is a {@link SheetTable} that reads its cells straight from a memory-mapped
+ * {@link SnapshotFile}. Only the strings that are actually looked up are decoded onto the heap.
+ */
+final class MappedSheetTable extends SheetTable {
+
+    private final int rowSlots;
+    private final int columnSlots;
+    private final ByteBuffer buffer;
+    private final int columnTableOffset;
+    private final int keyIndexOffset;
+    private final SnapshotFile.MappedStrings strings;
+
+    MappedSheetTable(String name, int physicalRowCount, int rowSlots, int columnSlots, ByteBuffer buffer,
+            int columnTableOffset, int keyIndexOffset, SnapshotFile.MappedStrings strings) {
+        super(name, physicalRowCount);
+        this.rowSlots = rowSlots;
+        this.columnSlots = columnSlots;
+        this.buffer = buffer;
+        this.columnTableOffset = columnTableOffset;
+        this.keyIndexOffset = keyIndexOffset;
+        this.strings = strings;
+    }
+
+    @Override
+    public int getRowSlots() {
+        return rowSlots;
+    }
+
+    @Override
+    public int getColumnSlots() {
+        return columnSlots;
+    }
+
+    @Override
+    public String getCellValue(int row, int col) {
+        if (row < 0 || row >= rowSlots || col < 0 || col >= columnSlots) {
+            return null;
+        }
+        int column = buffer.getInt(columnTableOffset + 4 * col);
+        int id = buffer.getInt(column + 4 * row);
+        return id < 0 ? null : strings.get(id);
+    }
+
+    /**
+     * Looks the key up in the compiled key index instead of scanning the first column.
+     */
+    @Override
+    public String getValue(String key) {
+        int capacity = buffer.getInt(keyIndexOffset);
+        if (key == null || capacity == 0) {
+            return null;
+        }
+        int slot = SnapshotFile.slot(key, capacity);
+        while (true) {
+            int row = buffer.getInt(keyIndexOffset + 4 + 4 * slot);
+            if (row < 0) {
+                return null;
+            }
+            if (key.equals(getCellValue(row, 0))) {
+                return getCellValue(row, 1);
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+}
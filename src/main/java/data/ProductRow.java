@@ -0,0 +1,122 @@
+package data;
+
+import java.math.BigDecimal;
+
+/**
+ * ProductRow is one product from the "products" sheet, with its price, rating and reviews already converted.
+ */
+public class ProductRow {
+
+    @Column("Test CaseID")
+    private String caseNum;
+
+    @Column("ProductID")
+    private String productId;
+
+    @Column("ProductName")
+    private String productName;
+
+    @Column("VendorName")
+    private String vendorName;
+
+    @Column("Price")
+    private BigDecimal price;
+
+    @Column("Rating")
+    private float rating;
+
+    @Column("Reviews")
+    private int reviews;
+
+    @Column("Category")
+    private String category;
+
+    @Column("Execution Required")
+    private boolean executionRequired = true;
+
+    /**
+     * Gets the test case identifier.
+     *
+     * @return The test case ID.
+     */
+    public String getCaseNum() {
+        return caseNum;
+    }
+
+    /**
+     * Gets the product identifier.
+     *
+     * @return The product ID.
+     */
+    public String getProductId() {
+        return productId;
+    }
+
+    /**
+     * Gets the expected name of the product.
+     *
+     * @return The product name.
+     */
+    public String getProductName() {
+        return productName;
+    }
+
+    /**
+     * Gets the expected vendor name.
+     *
+     * @return The vendor name, or null if not specified.
+     */
+    public String getVendorName() {
+        return vendorName;
+    }
+
+    /**
+     * Gets the expected price of the product.
+     *
+     * @return The price, or null if not specified.
+     */
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the expected rating of the product.
+     *
+     * @return The rating, 0 if not specified.
+     */
+    public float getRating() {
+        return rating;
+    }
+
+    /**
+     * Gets the expected minimum number of reviews.
+     *
+     * @return The number of reviews, 0 if not specified.
+     */
+    public int getReviews() {
+        return reviews;
+    }
+
+    /**
+     * Gets the expected category of the product.
+     *
+     * @return The category, or null if not specified.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Checks whether this test case should be executed.
+     *
+     * @return False only if the sheet marks the case "No".
+     */
+    public boolean isExecutionRequired() {
+        return executionRequired;
+    }
+
+    @Override
+    public String toString() {
+        return caseNum + " (" + productName + ")";
+    }
+}
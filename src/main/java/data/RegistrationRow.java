@@ -0,0 +1,108 @@
+package data;
+
+/**
+ * RegistrationRow is one test case from the "registration form" sheet.
+ */
+public class RegistrationRow {
+
+    @Column("Test Case ID")
+    private String caseNum;
+
+    @Column("First Name")
+    private String firstName;
+
+    @Column("Last Name")
+    private String lastName;
+
+    @Column("Email Address")
+    private String email;
+
+    @Column("Password")
+    private String password;
+
+    @Column("Mobile Number")
+    private String mobileNumber;
+
+    @Column("Expected Result")
+    private String expectedResult;
+
+    @Column("Execution Required")
+    private boolean executionRequired = true;
+
+    /**
+     * Gets the test case identifier.
+     *
+     * @return The test case ID.
+     */
+    public String getCaseNum() {
+        return caseNum;
+    }
+
+    /**
+     * Gets the first name of the user.
+     *
+     * @return The first name.
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Gets the last name of the user.
+     *
+     * @return The last name.
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Gets the email address of the user.
+     *
+     * @return The email address.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Gets the password for the account.
+     *
+     * @return The password.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Gets the mobile number of the user.
+     *
+     * @return The mobile number.
+     */
+    public String getMobileNumber() {
+        return mobileNumber;
+    }
+
+    /**
+     * Gets the expected result, "Success" or the expected error message.
+     *
+     * @return The expected result.
+     */
+    public String getExpectedResult() {
+        return expectedResult;
+    }
+
+    /**
+     * Checks whether this test case should be executed.
+     *
+     * @return False only if the sheet marks the case "No".
+     */
+    public boolean isExecutionRequired() {
+        return executionRequired;
+    }
+
+    @Override
+    public String toString() {
+        return caseNum + " (" + email + ")";
+    }
+}
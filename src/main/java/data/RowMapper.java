@@ -0,0 +1,228 @@
+package data;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * RowMapper binds the data rows of a {@link SheetTable} to instances of a typed row class.
+ * <p>
+ * Every field annotated with {@link Column} is resolved once per row class into a setter
+ * {@link MethodHandle} and a converter for its type, and the mapper is cached, so binding a sheet only
+ * costs one conversion per cell. Supported field types are String, int, long, float, double, boolean
+ * (and their wrappers) and BigDecimal. Missing cells, and blank cells bound to non-text fields, leave the
+ * field at its initial value.
+ *
+ * @param <T> The row type.
+ */
+public final class RowMapper<T> {
+
+    private static final Map<Class<?>, RowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private static final Set<String> TRUE_VALUES = Set.of("yes", "y", "true");
+    private static final Set<String> FALSE_VALUES = Set.of("no", "n", "false");
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final List<Binding> bindings;
+
+    private RowMapper(Class<T> type) {
+        this.type = type;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+
+            List<Binding> result = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                Column column = field.getAnnotation(Column.class);
+                if (column == null) {
+                    continue;
+                }
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                    throw new IllegalArgumentException("Column field must be neither static nor final: " + field);
+                }
+                MethodHandle setter = lookup.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                result.add(new Binding(column.value(), setter, converter(field), field.getType() == String.class));
+            }
+            this.bindings = Collections.unmodifiableList(result);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Failed to create row mapper for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Gets the mapper for a row class, creating it on first use.
+     *
+     * @param type The row class. It needs a no-argument constructor.
+     * @param <T>  The row type.
+     * @return The shared mapper for the row class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        return (RowMapper<T>) MAPPERS.computeIfAbsent(type, RowMapper::new);
+    }
+
+    /**
+     * Binds every data row of a sheet. The first row is the header; rows without any non-empty cell are skipped.
+     *
+     * @param sheet The sheet to bind.
+     * @return The bound rows, in sheet order.
+     * @throws IllegalStateException If a bound column is missing from the sheet or a cell cannot be converted.
+     */
+    public List<T> bind(SheetTable sheet) {
+        int[] columns = resolveColumns(sheet);
+        List<T> rows = new ArrayList<>();
+        for (int row = 1; row < sheet.getRowSlots(); row++) {
+            if (isBlankRow(sheet, row)) {
+                continue;
+            }
+            rows.add(bindRow(sheet, row, columns));
+        }
+        return rows;
+    }
+
+    /**
+     * Creates one row instance from a sheet row.
+     */
+    private T bindRow(SheetTable sheet, int row, int[] columns) {
+        try {
+            Object instance = constructor.invokeExact();
+            for (int i = 0; i < bindings.size(); i++) {
+                Binding binding = bindings.get(i);
+                String value = sheet.getCellValue(row, columns[i]);
+                if (value == null || (value.isEmpty() && !binding.text)) {
+                    continue;
+                }
+                try {
+                    binding.setter.invokeExact(instance, binding.converter.apply(value));
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Failed to convert '" + value + "' in column '" + binding.header
+                            + "', row " + row + " of sheet '" + sheet.getName() + "'", e);
+                }
+            }
+            return type.cast(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to bind row " + row + " of sheet '" + sheet.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Finds the column index of every binding from the header row.
+     */
+    private int[] resolveColumns(SheetTable sheet) {
+        Map<String, Integer> headers = new HashMap<>();
+        for (int col = 0; col < sheet.getColumnSlots(); col++) {
+            String header = sheet.getCellValue(0, col);
+            if (header != null) {
+                headers.putIfAbsent(normalize(header), col);
+            }
+        }
+        int[] columns = new int[bindings.size()];
+        for (int i = 0; i < columns.length; i++) {
+            Integer col = headers.get(normalize(bindings.get(i).header));
+            if (col == null) {
+                throw new IllegalStateException("Column '" + bindings.get(i).header + "' not found in sheet '"
+                        + sheet.getName() + "' for " + type.getSimpleName());
+            }
+            columns[i] = col;
+        }
+        return columns;
+    }
+
+    /**
+     * Checks whether a row has no non-empty cell.
+     */
+    private static boolean isBlankRow(SheetTable sheet, int row) {
+        for (int col = 0; col < sheet.getColumnSlots(); col++) {
+            String value = sheet.getCellValue(row, col);
+            if (value != null && !value.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reduces a header to lower-case letters and digits.
+     */
+    private static String normalize(String header) {
+        StringBuilder result = new StringBuilder(header.length());
+        header.codePoints().filter(Character::isLetterOrDigit).map(Character::toLowerCase).forEach(result::appendCodePoint);
+        return result.toString();
+    }
+
+    /**
+     * Picks the conversion from a cell string to the type of a field.
+     */
+    private static Function<String, Object> converter(Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return value -> value;
+        }
+        if (type == int.class || type == Integer.class) {
+            return value -> (int) Double.parseDouble(value);
+        }
+        if (type == long.class || type == Long.class) {
+            return value -> (long) Double.parseDouble(value);
+        }
+        if (type == float.class || type == Float.class) {
+            return Float::parseFloat;
+        }
+        if (type == double.class || type == Double.class) {
+            return Double::parseDouble;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return RowMapper::parseBoolean;
+        }
+        if (type == BigDecimal.class) {
+            return value -> new BigDecimal(value.trim());
+        }
+        throw new IllegalArgumentException("Unsupported column field type: " + field);
+    }
+
+    /**
+     * Parses the yes/no and true/false flags used in the workbook.
+     */
+    private static Boolean parseBoolean(String value) {
+        String flag = value.trim().toLowerCase();
+        if (TRUE_VALUES.contains(flag)) {
+            return Boolean.TRUE;
+        }
+        if (FALSE_VALUES.contains(flag)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean flag: " + value);
+    }
+
+    /**
+     * A bound column: its header, the field setter, the cell converter and whether the field is text.
+     */
+    private static final class Binding {
+        private final String header;
+        private final MethodHandle setter;
+        private final Function<String, Object> converter;
+        private final boolean text;
+
+        Binding(String header, MethodHandle setter, Function<String, Object> converter, boolean text) {
+            this.header = header;
+            this.setter = setter;
+            this.converter = converter;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package data;
+
+/**
+ * SearchRow is one search query from the "search data" sheet.
+ */
+public class SearchRow {
+
+    @Column("Test Case ID")
+    private String queryName;
+
+    @Column("Search Value")
+    private String searchValue;
+
+    // The header is misspelt in the workbook.
+    @Column("Expexted")
+    private String expected;
+
+    @Column("Execution Required")
+    private boolean executionRequired = true;
+
+    /**
+     * Gets the name of the search query.
+     *
+     * @return The query name.
+     */
+    public String getQueryName() {
+        return queryName;
+    }
+
+    /**
+     * Gets the value to search for.
+     *
+     * @return The search value.
+     */
+    public String getSearchValue() {
+        return searchValue;
+    }
+
+    /**
+     * Gets the expected outcome, "results-page" or the expected error message.
+     *
+     * @return The expected outcome.
+     */
+    public String getExpected() {
+        return expected;
+    }
+
+    /**
+     * Checks whether this query should be executed.
+     *
+     * @return False only if the sheet marks the query "No".
+     */
+    public boolean isExecutionRequired() {
+        return executionRequired;
+    }
+
+    @Override
+    public String toString() {
+        return queryName + " (" + searchValue + ")";
+    }
+}
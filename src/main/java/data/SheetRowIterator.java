@@ -0,0 +1,170 @@
+package data;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import logging.LoggingManager;
+
+/**
+ * SheetRowIterator streams the rows of one worksheet with the XSSF event (SAX) API.
+ * A background thread parses the sheet XML and hands rows over through a small bounded queue,
+ * so memory stays constant regardless of sheet size and the first row is available as soon
+ * as it has been parsed. Cell values are converted the same way {@code file.ExcelReader} does.
+ */
+public final class SheetRowIterator implements Iterator<String[]>, AutoCloseable {
+
+    private static final int QUEUE_CAPACITY = 64;
+
+    // Marks the end of the sheet in the queue.
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread producer;
+    private volatile boolean closed;
+    private Object next;
+
+    // Only touched by the producer thread.
+    private boolean header = true;
+
+    /**
+     * Starts streaming the rows of a sheet. The header row is skipped and rows without any
+     * non-empty cell are dropped.
+     *
+     * @param file      The .xlsx file to read.
+     * @param sheetName The name of the sheet to stream.
+     */
+    public SheetRowIterator(File file, String sheetName) {
+        producer = new Thread(() -> produce(file, sheetName), "test-data-stream-" + sheetName);
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next test data row", e);
+            }
+        }
+        if (next instanceof Throwable) {
+            throw new IllegalStateException("Failed to stream test data", (Throwable) next);
+        }
+        return next != END;
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] row = (String[]) next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Stops the background parser. Rows that have not been consumed yet are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        producer.interrupt();
+    }
+
+    /**
+     * Parses the sheet and publishes each row to the queue. Runs on the producer thread.
+     */
+    private void produce(File file, String sheetName) {
+        Object last = END;
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            try (InputStream sheet = findSheet(reader, sheetName)) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetXmlHandler(strings, styles, (rowNum, cells) -> {
+                    if (header) {
+                        header = false;
+                    } else if (Arrays.stream(cells).anyMatch(value -> value != null && !value.isEmpty())) {
+                        publish(cells);
+                    }
+                }));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (Exception e) {
+            if (closed) {
+                return;
+            }
+            LoggingManager.error("Error streaming sheet '" + sheetName + "' from " + file, e);
+            last = e;
+        }
+        try {
+            publish(last);
+        } catch (StreamClosedException e) {
+            // The consumer is gone, nothing left to signal.
+        }
+    }
+
+    /**
+     * Locates the XML stream of a sheet by name.
+     */
+    private static InputStream findSheet(XSSFReader reader, String sheetName) throws Exception {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (sheets.hasNext()) {
+            InputStream sheet = sheets.next();
+            if (sheets.getSheetName().equals(sheetName)) {
+                return sheet;
+            }
+            sheet.close();
+        }
+        throw new IllegalArgumentException("Sheet not found: " + sheetName);
+    }
+
+    /**
+     * Puts an item on the queue, waiting for the consumer to make room.
+     *
+     * @throws StreamClosedException If the iterator was closed while waiting.
+     */
+    private void publish(Object item) {
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new StreamClosedException();
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new StreamClosedException();
+        }
+    }
+
+    /**
+     * Signals that the consumer closed the stream and the producer should stop.
+     */
+    private static final class StreamClosedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StreamClosedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SheetTable is an immutable, in-memory view of a single worksheet.
+ * Cells are exposed as the same strings {@code file.ExcelReader} returns and are
+ * addressed by zero-based row and column index, so lookups never touch the workbook file.
+ */
+public abstract class SheetTable {
+
+    private final String name;
+
+    // Number of rows actually present in the sheet (POI's "physical" row count).
+    private final int physicalRowCount;
+
+    // Key indexes built so far, keyed by their key columns. Each index is built at most once.
+    private final ConcurrentMap<List<Integer>, KeyIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a sheet table.
+     *
+     * @param name             The name of the worksheet.
+     * @param physicalRowCount The number of rows present in the worksheet.
+     */
+    SheetTable(String name, int physicalRowCount) {
+        this.name = name;
+        this.physicalRowCount = physicalRowCount;
+    }
+
+    /**
+     * Gets the name of the worksheet.
+     *
+     * @return The sheet name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of rows in the sheet, excluding the header row.
+     *
+     * @return The row count, never negative.
+     */
+    public int getRowCount() {
+        return Math.max(physicalRowCount - 1, 0);
+    }
+
+    /**
+     * Gets the number of physical rows in the sheet, including the header row.
+     *
+     * @return The physical row count.
+     */
+    int getPhysicalRowCount() {
+        return physicalRowCount;
+    }
+
+    /**
+     * Gets the number of row slots in the sheet, i.e. the last row index plus one.
+     *
+     * @return The number of row slots.
+     */
+    public abstract int getRowSlots();
+
+    /**
+     * Gets the number of column slots in the sheet, i.e. the widest row's last column index plus one.
+     *
+     * @return The number of column slots.
+     */
+    public abstract int getColumnSlots();
+
+    /**
+     * Retrieves the value of a cell.
+     *
+     * @param row The zero-based row index.
+     * @param col The zero-based column index.
+     * @return The cell value, an empty string for a blank cell, or null if the row or cell does not exist.
+     */
+    public abstract String getCellValue(int row, int col);
+
+    /**
+     * Gets the hash index over the given key columns, building it on first use.
+     * Concurrent callers asking for the same columns share a single build.
+     *
+     * @param keyColumns The zero-based key columns; more than one column makes a composite key.
+     * @return The key index.
+     */
+    public KeyIndex getIndex(int... keyColumns) {
+        if (keyColumns.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required");
+        }
+        List<Integer> columns = Arrays.asList(Arrays.stream(keyColumns).boxed().toArray(Integer[]::new));
+        return indexes.computeIfAbsent(columns, c -> KeyIndex.build(this, keyColumns));
+    }
+
+    /**
+     * Retrieves a value from the first row whose key columns equal the given key values and whose
+     * value column is not empty.
+     *
+     * @param keyColumns  The zero-based key columns.
+     * @param keyValues   One value per key column.
+     * @param valueColumn The zero-based column to read the value from.
+     * @return The value, or null if no row matches.
+     */
+    public String getValue(int[] keyColumns, String[] keyValues, int valueColumn) {
+        for (int row : getIndex(keyColumns).getRows(keyValues)) {
+            String value = getCellValue(row, valueColumn);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the value in the second column of the first row whose first column equals the key.
+     *
+     * @param key The key to search for in the first column of the sheet.
+     * @return The value corresponding to the key, or null if not found.
+     */
+    public String getValue(String key) {
+        return getValue(new int[] {0}, new String[] {key}, 1);
+    }
+}
@@ -0,0 +1,140 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler that turns the {@code <row>} and {@code <c>} elements of a worksheet part into string arrays.
+ * Cell values are converted the same way {@code file.ExcelReader} does.
+ */
+final class SheetXmlHandler extends DefaultHandler {
+
+    /**
+     * Receives each parsed row.
+     */
+    interface RowConsumer {
+
+        /**
+         * Accepts a parsed row.
+         *
+         * @param rowNum The zero-based row number.
+         * @param cells  The cell values indexed by column; null where the row has no cell.
+         * @throws SAXException To abort parsing.
+         */
+        void accept(int rowNum, String[] cells) throws SAXException;
+    }
+
+    private final SharedStrings strings;
+    private final StylesTable styles;
+    private final RowConsumer consumer;
+    private final StringBuilder text = new StringBuilder();
+
+    private List<String> cells;
+    private int rowNum = -1;
+    private boolean collecting;
+    private String cellType;
+    private String cellStyle;
+    private int column;
+
+    SheetXmlHandler(SharedStrings strings, StylesTable styles, RowConsumer consumer) {
+        this.strings = strings;
+        this.styles = styles;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case "row":
+                cells = new ArrayList<>();
+                String r = attributes.getValue("r");
+                rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                break;
+            case "c":
+                String ref = attributes.getValue("r");
+                column = ref != null ? new CellReference(ref).getCol() : cells.size();
+                cellType = attributes.getValue("t");
+                cellStyle = attributes.getValue("s");
+                text.setLength(0);
+                while (cells.size() <= column) {
+                    cells.add(null);
+                }
+                cells.set(column, "");
+                break;
+            case "v":
+            case "t":
+                collecting = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (collecting) {
+            text.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        switch (localName) {
+            case "v":
+            case "t":
+                collecting = false;
+                break;
+            case "c":
+                cells.set(column, convert(text.toString()));
+                break;
+            case "row":
+                consumer.accept(rowNum, cells.toArray(new String[0]));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Converts the raw text of a cell to the value ExcelReader would return.
+     */
+    private String convert(String raw) {
+        if (cellType == null || cellType.equals("n")) {
+            return raw.isEmpty() ? "" : numeric(Double.parseDouble(raw));
+        }
+        switch (cellType) {
+            case "s":
+                return raw.isEmpty() ? "" : strings.getItemAt(Integer.parseInt(raw)).getString();
+            case "b":
+                return String.valueOf("1".equals(raw));
+            case "inlineStr":
+            case "str":
+                return raw;
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Formats a numeric cell, rendering date formatted cells as dates.
+     */
+    private String numeric(double value) {
+        if (cellStyle != null && styles != null) {
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+            if (style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())
+                    && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getJavaDate(value).toString();
+            }
+        }
+        return String.valueOf(value);
+    }
+}
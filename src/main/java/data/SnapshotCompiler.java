@@ -0,0 +1,32 @@
+package data;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * SnapshotCompiler compiles the test data workbook into a {@link SnapshotFile} at build time.
+ * It is bound to the process-test-resources phase in pom.xml, so the snapshot next to the test
+ * classes always matches the workbook the build saw.
+ */
+public final class SnapshotCompiler {
+
+    private SnapshotCompiler() {
+    }
+
+    /**
+     * Compiles a workbook.
+     *
+     * @param args The workbook path and the snapshot path. Defaults to {@link TestDataStore#DATA_PATH}
+     *             and {@link TestDataStore#SNAPSHOT_PATH}.
+     * @throws Exception If the workbook cannot be parsed or the snapshot cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        Path source = args.length > 0 ? Paths.get(args[0]) : TestDataStore.DATA_PATH;
+        Path target = args.length > 1 ? Paths.get(args[1]) : TestDataStore.SNAPSHOT_PATH;
+
+        long start = System.nanoTime();
+        SnapshotFile.write(WorkbookSnapshot.load(source), source, target);
+        System.out.println("Compiled " + source + " into " + target + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
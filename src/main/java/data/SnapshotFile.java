@@ -0,0 +1,255 @@
+package data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * SnapshotFile reads and writes the compiled binary form of a {@link WorkbookSnapshot}.
+ * <p>
+ * The file is written at build time by {@link SnapshotCompiler} and memory-mapped at runtime, so
+ * no OOXML parsing happens in the test JVM. All integers are big-endian and all offsets are absolute.
+ *
+ * <pre>
+ * header      int magic, int version, long source length, long source CRC32, int string count, int sheet count
+ * strings     int[count + 1] offsets into the UTF-8 data, followed by the UTF-8 data
+ * directory   per sheet: int name id, int physical rows, int row slots, int column slots,
+ *             int column table offset, int key index offset
+ * per sheet   column table: int[column slots] offsets of the column blocks
+ *             column block: int[row slots] string ids, -1 where there is no cell
+ *             key index:    int capacity, int[capacity] open-addressed row numbers, -1 where empty
+ * </pre>
+ */
+public final class SnapshotFile {
+
+    static final int MAGIC = 0x54445342; // "TDSB"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int DIRECTORY_ENTRY_SIZE = 24;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Compiles a snapshot into the binary format.
+     *
+     * @param snapshot The snapshot to write.
+     * @param source   The workbook the snapshot was parsed from, used to stamp the file.
+     * @param target   The file to write.
+     * @throws IOException If either file cannot be accessed.
+     */
+    public static void write(WorkbookSnapshot snapshot, Path source, Path target) throws IOException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        List<int[][]> columnsPerSheet = new ArrayList<>();
+        for (SheetTable sheet : snapshot.getSheets().values()) {
+            intern(ids, sheet.getName());
+            int[][] columns = new int[sheet.getColumnSlots()][sheet.getRowSlots()];
+            for (int col = 0; col < columns.length; col++) {
+                for (int row = 0; row < columns[col].length; row++) {
+                    String value = sheet.getCellValue(row, col);
+                    columns[col][row] = value == null ? -1 : intern(ids, value);
+                }
+            }
+            columnsPerSheet.add(columns);
+        }
+
+        List<byte[]> encoded = new ArrayList<>(ids.size());
+        int stringBytes = 0;
+        for (String value : ids.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            stringBytes += bytes.length;
+        }
+
+        List<SheetTable> sheets = new ArrayList<>(snapshot.getSheets().values());
+        int offset = HEADER_SIZE + 4 * (encoded.size() + 1) + stringBytes + DIRECTORY_ENTRY_SIZE * sheets.size();
+        int[] columnTableOffsets = new int[sheets.size()];
+        int[] keyIndexOffsets = new int[sheets.size()];
+        List<int[]> keyIndexes = new ArrayList<>();
+        for (int i = 0; i < sheets.size(); i++) {
+            SheetTable sheet = sheets.get(i);
+            columnTableOffsets[i] = offset;
+            offset += 4 * sheet.getColumnSlots() * (1 + sheet.getRowSlots());
+            keyIndexOffsets[i] = offset;
+            int[] keyIndex = buildKeyIndex(sheet);
+            keyIndexes.add(keyIndex);
+            offset += 4 * (1 + keyIndex.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(offset);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(Files.size(source)).putLong(checksum(source));
+        buffer.putInt(encoded.size()).putInt(sheets.size());
+
+        int stringOffset = 0;
+        for (byte[] bytes : encoded) {
+            buffer.putInt(stringOffset);
+            stringOffset += bytes.length;
+        }
+        buffer.putInt(stringOffset);
+        encoded.forEach(buffer::put);
+
+        for (int i = 0; i < sheets.size(); i++) {
+            SheetTable sheet = sheets.get(i);
+            buffer.putInt(ids.get(sheet.getName())).putInt(sheet.getPhysicalRowCount())
+                    .putInt(sheet.getRowSlots()).putInt(sheet.getColumnSlots())
+                    .putInt(columnTableOffsets[i]).putInt(keyIndexOffsets[i]);
+        }
+
+        for (int i = 0; i < sheets.size(); i++) {
+            int[][] columns = columnsPerSheet.get(i);
+            int columnOffset = columnTableOffsets[i] + 4 * columns.length;
+            for (int[] column : columns) {
+                buffer.putInt(columnOffset);
+                columnOffset += 4 * column.length;
+            }
+            for (int[] column : columns) {
+                for (int id : column) {
+                    buffer.putInt(id);
+                }
+            }
+            int[] keyIndex = keyIndexes.get(i);
+            buffer.putInt(keyIndex.length);
+            for (int row : keyIndex) {
+                buffer.putInt(row);
+            }
+        }
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Files.write(target, buffer.array());
+    }
+
+    /**
+     * Memory-maps a compiled snapshot if it is still current for the given workbook.
+     *
+     * @param snapshotPath The compiled snapshot file.
+     * @param source       The workbook the snapshot must have been compiled from.
+     * @return The mapped snapshot, or null if the file is missing, unreadable or stale.
+     * @throws IOException If either file cannot be read.
+     */
+    public static WorkbookSnapshot map(Path snapshotPath, Path source) throws IOException {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+        if (buffer.getLong(8) != Files.size(source) || buffer.getLong(16) != checksum(source)) {
+            return null;
+        }
+
+        int stringCount = buffer.getInt(24);
+        int sheetCount = buffer.getInt(28);
+        MappedStrings strings = new MappedStrings(buffer, HEADER_SIZE, stringCount);
+        int directory = HEADER_SIZE + 4 * (stringCount + 1) + buffer.getInt(HEADER_SIZE + 4 * stringCount);
+
+        Map<String, SheetTable> sheets = new LinkedHashMap<>();
+        for (int i = 0; i < sheetCount; i++) {
+            int entry = directory + i * DIRECTORY_ENTRY_SIZE;
+            String name = strings.get(buffer.getInt(entry));
+            sheets.put(name, new MappedSheetTable(name, buffer.getInt(entry + 4), buffer.getInt(entry + 8),
+                    buffer.getInt(entry + 12), buffer, buffer.getInt(entry + 16), buffer.getInt(entry + 20), strings));
+        }
+        return new WorkbookSnapshot(sheets);
+    }
+
+    /**
+     * Computes the CRC32 of a file's content, used to detect a stale snapshot.
+     */
+    static long checksum(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(path));
+        return crc.getValue();
+    }
+
+    /**
+     * Spreads a key's hash code over the index slots.
+     */
+    static int slot(String key, int capacity) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
+
+    /**
+     * Returns the id of a string, assigning the next free id to strings not seen before.
+     */
+    private static int intern(Map<String, Integer> ids, String value) {
+        return ids.computeIfAbsent(value, v -> ids.size());
+    }
+
+    /**
+     * Builds the open-addressed index of first-column keys. Only the first row with a given key is
+     * indexed, and only rows that also have a value, which matches {@link SheetTable#getValue(String)}.
+     */
+    private static int[] buildKeyIndex(SheetTable sheet) {
+        int capacity = 2;
+        while (capacity < sheet.getRowSlots() * 2) {
+            capacity <<= 1;
+        }
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        for (int row = 0; row < sheet.getRowSlots(); row++) {
+            String key = sheet.getCellValue(row, 0);
+            if (key == null || sheet.getCellValue(row, 1) == null) {
+                continue;
+            }
+            int slot = slot(key, capacity);
+            while (slots[slot] >= 0 && !key.equals(sheet.getCellValue(slots[slot], 0))) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (slots[slot] < 0) {
+                slots[slot] = row;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Decodes strings from the mapped string table on first use and caches them.
+     */
+    static final class MappedStrings {
+
+        private final ByteBuffer buffer;
+        private final int offsetsStart;
+        private final int dataStart;
+        private final String[] cache;
+
+        MappedStrings(ByteBuffer buffer, int offsetsStart, int count) {
+            this.buffer = buffer;
+            this.offsetsStart = offsetsStart;
+            this.dataStart = offsetsStart + 4 * (count + 1);
+            this.cache = new String[count];
+        }
+
+        String get(int id) {
+            String value = cache[id];
+            if (value == null) {
+                int start = buffer.getInt(offsetsStart + 4 * id);
+                int end = buffer.getInt(offsetsStart + 4 * (id + 1));
+                byte[] bytes = new byte[end - start];
+                ByteBuffer view = buffer.duplicate();
+                view.position(dataStart + start);
+                view.get(bytes);
+                // Strings are immutable, so a racing decode of the same id is harmless.
+                value = new String(bytes, StandardCharsets.UTF_8);
+                cache[id] = value;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * TestDataStore holds the process-wide {@link WorkbookSnapshot} of the test data workbook.
+ * The snapshot is loaded on first use and the same immutable instance is shared by every
+ * data provider, page object and listener afterwards. The compiled {@link SnapshotFile} written
+ * by the build is memory-mapped when it matches the workbook; otherwise the workbook is parsed.
+ * <p>
+ * With {@code watch_test_data=true} in config.properties, a {@link TestDataWatcher} reloads changed sheets
+ * while the suite runs and replaces the shared snapshot.
+ */
+public final class TestDataStore {
+
+    public static final Path DATA_PATH = Paths.get(System.getProperty("user.dir"), "src", "test", "resources",
+            "testdata.xlsx");
+
+    public static final Path SNAPSHOT_PATH = Paths.get(System.getProperty("user.dir"), "target", "testdata.bin");
+
+    private static volatile WorkbookSnapshot snapshot;
+
+    private TestDataStore() {
+    }
+
+    /**
+     * Gets the shared snapshot, parsing the workbook if it has not been loaded yet.
+     *
+     * @return The test data snapshot.
+     * @throws IllegalStateException If the workbook cannot be read.
+     */
+    public static WorkbookSnapshot get() {
+        WorkbookSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (TestDataStore.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = load(DATA_PATH, SNAPSHOT_PATH);
+                    snapshot = current;
+                    if (Boolean.parseBoolean(ConfigReader.getProperty("watch_test_data"))) {
+                        startWatcher();
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the shared snapshot. Callers that already hold the previous snapshot keep using it.
+     *
+     * @param reloaded The new snapshot.
+     */
+    static void publish(WorkbookSnapshot reloaded) {
+        snapshot = reloaded;
+    }
+
+    /**
+     * Starts reloading the workbook whenever it changes on disk.
+     */
+    private static void startWatcher() {
+        try {
+            new TestDataWatcher(DATA_PATH, TestDataStore::get, TestDataStore::publish).start();
+        } catch (IOException e) {
+            LoggingManager.warn("Failed to watch test data for changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the test data, preferring the compiled snapshot and falling back to the workbook
+     * when the snapshot is missing or was compiled from a different version of the workbook.
+     *
+     * @param path         The path of the .xlsx file.
+     * @param snapshotPath The path of the compiled snapshot.
+     * @return The loaded snapshot.
+     * @throws IllegalStateException If the workbook cannot be read.
+     */
+    private static WorkbookSnapshot load(Path path, Path snapshotPath) {
+        long start = System.nanoTime();
+        try {
+            WorkbookSnapshot mapped = SnapshotFile.map(snapshotPath, path);
+            if (mapped != null) {
+                LoggingManager.info("Test data mapped from " + snapshotPath + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                return mapped;
+            }
+            LoggingManager.info("Compiled test data snapshot missing or stale, parsing " + path);
+        } catch (IOException e) {
+            LoggingManager.warn("Failed to map compiled test data snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+        try {
+            WorkbookSnapshot loaded = WorkbookSnapshot.load(path);
+            LoggingManager.info("Test data parsed in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return loaded;
+        } catch (IOException e) {
+            LoggingManager.error("Error reading Excel file: " + path, e);
+            throw new IllegalStateException("Failed to load test data from " + path, e);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import logging.LoggingManager;
+
+/**
+ * TestDataWatcher reloads the test data workbook while a suite is running.
+ * <p>
+ * A daemon thread watches the workbook's directory. When the workbook changes, the CRC of every part in the
+ * .xlsx archive is compared with the previous version and only the worksheets whose part changed are parsed
+ * again; the other sheets are carried over as they are. A change to the workbook, shared strings or styles
+ * part affects every sheet, so all sheets are parsed in that case. The result is published as a new
+ * immutable {@link WorkbookSnapshot}, so providers that already hold the previous snapshot keep reading
+ * a consistent version.
+ */
+public final class TestDataWatcher implements AutoCloseable {
+
+    // Parts shared by all sheets; a change to any of them invalidates every sheet.
+    private static final List<String> SHARED_PARTS = List.of("xl/workbook.xml", "xl/sharedStrings.xml", "xl/styles.xml");
+
+    // Editors save in several steps, so wait for the file to settle before reading it.
+    private static final long SETTLE_MILLIS = 500;
+
+    private final Path file;
+    private final Supplier<WorkbookSnapshot> current;
+    private final Consumer<WorkbookSnapshot> publisher;
+    private Map<String, Long> partCrcs;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Creates a watcher. Call {@link #start()} to begin watching.
+     *
+     * @param file      The .xlsx file to watch.
+     * @param current   Supplies the snapshot that is currently published.
+     * @param publisher Publishes a reloaded snapshot.
+     * @throws IOException If the workbook cannot be read.
+     */
+    public TestDataWatcher(Path file, Supplier<WorkbookSnapshot> current, Consumer<WorkbookSnapshot> publisher)
+            throws IOException {
+        this.file = file.toAbsolutePath();
+        this.current = current;
+        this.publisher = publisher;
+        this.partCrcs = readPartCrcs(this.file);
+    }
+
+    /**
+     * Starts the background thread that watches the workbook.
+     *
+     * @return This watcher.
+     * @throws IOException If the directory cannot be watched.
+     */
+    public synchronized TestDataWatcher start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "test-data-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        LoggingManager.info("Watching " + file + " for test data changes");
+        return this;
+    }
+
+    /**
+     * Stops watching the workbook.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LoggingManager.warn("Failed to close test data watch service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reloads the sheets whose parts changed since the last reload and publishes the new snapshot.
+     *
+     * @return The published snapshot, or null if no part of the workbook changed.
+     * @throws IOException If the workbook cannot be read.
+     */
+    public synchronized WorkbookSnapshot reload() throws IOException {
+        long start = System.nanoTime();
+        Map<String, Long> crcs = readPartCrcs(file);
+        if (crcs.equals(partCrcs)) {
+            return null;
+        }
+        boolean sharedChanged = SHARED_PARTS.stream().anyMatch(part -> !Objects.equals(crcs.get(part), partCrcs.get(part)));
+        WorkbookSnapshot previous = current.get();
+
+        Map<String, SheetTable> sheets = new LinkedHashMap<>();
+        List<String> reloaded = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = null;
+            StylesTable styles = null;
+
+            XSSFReader.SheetIterator parts = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (parts.hasNext()) {
+                try (InputStream sheetXml = parts.next()) {
+                    String name = parts.getSheetName();
+                    String part = parts.getSheetPart().getPartName().getName().substring(1);
+                    SheetTable existing = previous.getSheet(name);
+                    if (!sharedChanged && existing != null && Objects.equals(crcs.get(part), partCrcs.get(part))) {
+                        sheets.put(name, existing);
+                        continue;
+                    }
+                    if (strings == null) {
+                        strings = new ReadOnlySharedStringsTable(pkg);
+                        styles = reader.getStylesTable();
+                    }
+                    sheets.put(name, parseSheet(name, sheetXml, strings, styles));
+                    reloaded.add(name);
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to reload test data from " + file, e);
+        }
+
+        WorkbookSnapshot snapshot = new WorkbookSnapshot(sheets);
+        publisher.accept(snapshot);
+        partCrcs = crcs;
+        LoggingManager.info("Reloaded test data sheets " + reloaded + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return snapshot;
+    }
+
+    /**
+     * Waits for changes to the workbook and reloads it. Runs on the watcher thread.
+     */
+    private void watch() {
+        Path fileName = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                Thread.sleep(SETTLE_MILLIS);
+                try {
+                    reload();
+                } catch (IOException e) {
+                    // Usually the file is still being written; the next event triggers another attempt.
+                    LoggingManager.warn("Failed to reload test data, keeping the previous version: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LoggingManager.info("Stopped watching " + file);
+        }
+    }
+
+    /**
+     * Parses one worksheet part into a sheet table.
+     */
+    private static SheetTable parseSheet(String name, InputStream sheetXml, ReadOnlySharedStringsTable strings,
+            StylesTable styles) throws Exception {
+        Map<Integer, String[]> rows = new HashMap<>();
+        int[] lastRow = {-1};
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetXmlHandler(strings, styles, (rowNum, cells) -> {
+            rows.put(rowNum, cells);
+            lastRow[0] = Math.max(lastRow[0], rowNum);
+        }));
+        parser.parse(new InputSource(sheetXml));
+
+        String[][] table = new String[lastRow[0] + 1][];
+        rows.forEach((rowNum, cells) -> table[rowNum] = cells);
+        return new ArraySheetTable(name, table, rows.size());
+    }
+
+    /**
+     * Reads the CRC of every part in the .xlsx archive.
+     */
+    private static Map<String, Long> readPartCrcs(Path file) throws IOException {
+        Map<String, Long> crcs = new HashMap<>();
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                crcs.put(entry.getName(), entry.getCrc());
+            }
+        }
+        return crcs;
+    }
+}
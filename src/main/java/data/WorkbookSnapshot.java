@@ -0,0 +1,190 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import logging.LoggingManager;
+
+/**
+ * WorkbookSnapshot is an immutable copy of every sheet in an Excel workbook.
+ * The workbook is parsed once and each sheet is kept as a {@link SheetTable}, so repeated
+ * cell and key lookups cost an array access instead of a full OOXML parse.
+ */
+public final class WorkbookSnapshot {
+
+    private final Map<String, SheetTable> sheets;
+
+    /**
+     * Creates a snapshot from already built sheet tables.
+     *
+     * @param sheets The sheets keyed by name, in workbook order.
+     */
+    WorkbookSnapshot(Map<String, SheetTable> sheets) {
+        this.sheets = Collections.unmodifiableMap(new LinkedHashMap<>(sheets));
+    }
+
+    /**
+     * Parses the workbook at the given path into a snapshot.
+     *
+     * @param path The path of the .xlsx file.
+     * @return The parsed snapshot.
+     * @throws IOException If the file cannot be read or is not a valid workbook.
+     */
+    public static WorkbookSnapshot load(Path path) throws IOException {
+        Map<String, SheetTable> sheets = new LinkedHashMap<>();
+        try (InputStream input = Files.newInputStream(path); Workbook workbook = new XSSFWorkbook(input)) {
+            for (Sheet sheet : workbook) {
+                sheets.put(sheet.getSheetName(), toTable(sheet));
+            }
+        }
+        LoggingManager.info("Loaded " + sheets.size() + " sheets from " + path);
+        return new WorkbookSnapshot(sheets);
+    }
+
+    /**
+     * Copies a POI sheet into a sheet table.
+     *
+     * @param sheet The sheet to copy.
+     * @return The sheet table.
+     */
+    static SheetTable toTable(Sheet sheet) {
+        String[][] rows = new String[Math.max(sheet.getLastRowNum() + 1, 0)][];
+        for (Row row : sheet) {
+            String[] cells = new String[Math.max(row.getLastCellNum(), 0)];
+            for (Cell cell : row) {
+                cells[cell.getColumnIndex()] = asString(cell);
+            }
+            rows[row.getRowNum()] = cells;
+        }
+        return new ArraySheetTable(sheet.getSheetName(), rows, sheet.getPhysicalNumberOfRows());
+    }
+
+    /**
+     * Converts a cell to a string the same way {@code file.ExcelReader} does, so callers
+     * see identical values regardless of which reader produced them.
+     *
+     * @param cell The cell to convert.
+     * @return The cell value as a string.
+     */
+    static String asString(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getDateCellValue().toString();
+                }
+                return String.valueOf(cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            case FORMULA:
+                try {
+                    return cell.getStringCellValue();
+                } catch (IllegalStateException e) {
+                    return String.valueOf(cell.getNumericCellValue());
+                }
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Gets a sheet by name.
+     *
+     * @param sheetName The name of the sheet.
+     * @return The sheet table, or null if the workbook has no such sheet.
+     */
+    public SheetTable getSheet(String sheetName) {
+        return sheets.get(sheetName);
+    }
+
+    /**
+     * Gets all sheets in workbook order.
+     *
+     * @return An unmodifiable map of sheet name to sheet table.
+     */
+    public Map<String, SheetTable> getSheets() {
+        return sheets;
+    }
+
+    /**
+     * Retrieves the value of a cell.
+     *
+     * @param sheetName The name of the sheet.
+     * @param row       The zero-based row index.
+     * @param col       The zero-based column index.
+     * @return The cell value, or null if the sheet, row or cell does not exist.
+     */
+    public String getCellValue(String sheetName, int row, int col) {
+        SheetTable sheet = sheets.get(sheetName);
+        return sheet == null ? null : sheet.getCellValue(row, col);
+    }
+
+    /**
+     * Gets the number of rows in a sheet, excluding the header row.
+     *
+     * @param sheetName The name of the sheet.
+     * @return The row count, or 0 if the sheet does not exist.
+     */
+    public int getRowCount(String sheetName) {
+        SheetTable sheet = sheets.get(sheetName);
+        if (sheet == null) {
+            LoggingManager.warn("Sheet not found: " + sheetName);
+            return 0;
+        }
+        return sheet.getRowCount();
+    }
+
+    /**
+     * Retrieves the value from the specified sheet and key.
+     *
+     * @param sheetName The name of the sheet to read from.
+     * @param key       The key to search for in the first column of the sheet.
+     * @return The value corresponding to the key in the second column, or null if not found.
+     */
+    public String getValue(String sheetName, String key) {
+        SheetTable sheet = sheets.get(sheetName);
+        if (sheet == null) {
+            LoggingManager.warn("Sheet with name '" + sheetName + "' not found.");
+            return null;
+        }
+        String value = sheet.getValue(key);
+        if (value == null) {
+            LoggingManager.warn("Key '" + key + "' not found in sheet '" + sheetName + "'.");
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves a value by a composite key.
+     *
+     * @param sheetName   The name of the sheet to read from.
+     * @param keyColumns  The zero-based key columns.
+     * @param keyValues   One value per key column.
+     * @param valueColumn The zero-based column to read the value from.
+     * @return The value of the first matching row, or null if not found.
+     */
+    public String getValue(String sheetName, int[] keyColumns, String[] keyValues, int valueColumn) {
+        SheetTable sheet = sheets.get(sheetName);
+        if (sheet == null) {
+            LoggingManager.warn("Sheet with name '" + sheetName + "' not found.");
+            return null;
+        }
+        return sheet.getValue(keyColumns, keyValues, valueColumn);
+    }
+}
@@ -1,21 +1,23 @@
 package pages;
 
+import java.time.Duration;
 import java.util.NoSuchElementException;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import components.NavBar;
 import config.ConfigReader;
 import logging.LoggingManager;
 import reporting.ReportManager;
 import utilities.ActionUtil;
+import utilities.CachingElementLocatorFactory;
 import utilities.DataProviderUtil;
 import utilities.DriverFactory;
-import wait.WaitUtil;
+import utilities.WaitEngine;
 
 /**
  * BasePage is an abstract class that serves as the base for all page classes.
@@ -25,17 +27,25 @@ import wait.WaitUtil;
 abstract public class BasePage {
 
 	protected WebDriver driver;
-	protected WaitUtil waitUtil;
-	public static ReportManager reporter;
+	protected WaitEngine waitUtil;
+	protected ReportManager reporter;
 	public DataProviderUtil dataUtil;
 	public ActionUtil actionUtil;
-	private static NavBar navBar;
+	private NavBar navBar;
+
+	protected static final By NAV_BAR = By.cssSelector(".top-nav.top-nav-module_top-nav_2cmJW");
+
+	// One reporter per test thread, so parallel classes and methods do not share it.
+	private static final ThreadLocal<ReportManager> reporters = ThreadLocal.withInitial(ReportManager::new);
 
 	public static final int slowWaitTime = Integer.parseInt(ConfigReader.getProperty("slow_wait_time"));
 	public static final int normalWaitTime = Integer.parseInt(ConfigReader.getProperty("normal_wait_time"));
 	public static final int fastWaitTime = Integer.parseInt(ConfigReader.getProperty("fast_wait_time"));
 	public static final int fasterWaitTime = Integer.parseInt(ConfigReader.getProperty("faster_wait_time"));
 
+	// Every page waits this long for the application to settle before reading the nav bar, so keep it short.
+	private static final Duration pageSettleTime = Duration.ofMillis(ConfigReader.getLong("page_settle_timeout_ms", 300));
+
 	/**
 	 * Constructor for the BasePage class. Initializes common utilities and
 	 * PageFactory.
@@ -44,14 +54,69 @@ abstract public class BasePage {
 	 */
 	public BasePage(WebDriver driver) {
 		this.driver = driver;
-		this.waitUtil = new WaitUtil(driver);
-		reporter = new ReportManager();
+		this.waitUtil = new WaitEngine(driver);
+		this.reporter = getReporter();
 		this.dataUtil = new DataProviderUtil();
 		this.actionUtil = new ActionUtil(driver);
 		navBar = new NavBar(getNavBarElement());
-		PageFactory.initElements(driver, this);
+		CachingElementLocatorFactory.initElements(driver, this);
 
 		LoggingManager.info("Page factory initialized for " + this.getClass().getSimpleName());
+		waitForDocument();
+	}
+
+	/**
+	 * Waits until a newly created page is ready to be used, after its fields have been initialized.
+	 * 
+	 * @param <T>  The type of the page.
+	 * @param page The page to wait for.
+	 * @return The same page.
+	 */
+	public static <T extends BasePage> T whenReady(T page) {
+		page.waitUntilReady();
+		return page;
+	}
+
+	/**
+	 * Waits until the document has been parsed. Called at the end of the constructor.
+	 * 
+	 * With the eager or none page load strategy, navigation returns before images and 
+	 * scripts have loaded. A document still loading after the normal wait time is reported and used as is.
+	 */
+	private void waitForDocument() {
+		try {
+			waitUtil.waitFor(d -> !"loading".equals(((JavascriptExecutor) d).executeScript("return document.readyState")),
+					normalWaitTime);
+		} catch (TimeoutException e) {
+			reportNotReady(getClass().getSimpleName() + " document still loading after " + normalWaitTime + "s");
+		}
+	}
+
+	/**
+	 * Waits until the page shows the elements its tests need. Called by {@link #whenReady(BasePage)} 
+	 * once the page has been constructed, so overrides can use the page's fields. Pages that need 
+	 * more than a parsed document override it.
+	 */
+	protected void waitUntilReady() {
+	}
+
+	/**
+	 * Logs and reports a page that did not become ready in time.
+	 * 
+	 * @param message The message describing what was not ready.
+	 */
+	protected void reportNotReady(String message) {
+		LoggingManager.warn(message);
+		reporter.log(message);
+	}
+
+	/**
+	 * Retrieves the ReportManager of the current test thread.
+	 * 
+	 * @return The ReportManager used by page objects on this thread.
+	 */
+	public static ReportManager getReporter() {
+		return reporters.get();
 	}
 
 	/**
@@ -76,11 +141,11 @@ abstract public class BasePage {
 	 * @return The WebElement representing the navBar.
 	 */
 	private WebElement getNavBarElement() {
-		waitUtil.waitImplicitly(1);
+		waitUtil.waitUntilSettled(pageSettleTime);
 		return waitUtil.waitFor(driver -> {
 			try {
 				LoggingManager.info("Getting nav element");
-				return driver.findElement(By.cssSelector(".top-nav.top-nav-module_top-nav_2cmJW"));
+				return driver.findElement(NAV_BAR);
 			} catch (NoSuchElementException e) {
 				LoggingManager.error("Failed to locate element: " + e.getMessage(), e);
 				return null;
@@ -101,11 +166,11 @@ abstract public class BasePage {
 	}
 
 	/**
-	 * Gets the WaitUtil instance used for waiting operations.
+	 * Gets the WaitEngine instance used for waiting operations.
 	 * 
-	 * @return The WaitUtil instance.
+	 * @return The WaitEngine instance.
 	 */
-	public WaitUtil getWait() {
+	public WaitEngine getWait() {
 		return waitUtil;
 	}
 
@@ -142,7 +207,7 @@ abstract public class BasePage {
 		waitUtil.waitForElementToBeVisible(element, fastWaitTime);
 		click(element);
 		element.clear();
-		waitUtil.waitFor(ExpectedConditions.textToBePresentInElementValue(element, ""), fastWaitTime);
+		waitUtil.waitForValue(element, "", fastWaitTime);
 		element.sendKeys(keys);
 		LoggingManager.info("Sent keys '" + keys + "' to element: " + element.toString());
 		reporter.log("Sent keys '" + keys + "' to element: " + element.toString()); // ReportManager log
@@ -59,12 +59,9 @@ public class CartPage extends BasePage{
             throw new NoSuchElementException("No cart items found.");
         } else {
         	
+            // CartItems read their name and price on first access, so filters only pay for what they read
             cartItemsList = cartItems.stream()
-                .map(element -> {
-                    CartItem cartItem = new CartItem(element);
-                    cartItem.initializeCartItem(); // Initialize the CartItem with its data
-                    return cartItem;
-                })
+                .map(CartItem::new)
                 .collect(Collectors.toList());
         }
     }
@@ -5,6 +5,8 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import utilities.SessionStore;
+
 /**
  * CheckoutPage handles the actions and validations on the checkout page.
  */
@@ -26,7 +28,10 @@ public class CheckoutPage extends BasePage {
 
     /**
      * Clicks the "Proceed to Checkout" button.
-     * If the login form appears, logs in the user using the LoginPage.
+     * If the login form appears, logs in the user using the LoginPage and stores the session for 
+     * later tests. Stored sessions are not restored here: injecting one replaces all cookies, including 
+     * those of the anonymous cart being checked out, so they are only restored at the start of a test 
+     * through {@link HomePage#startAs(WebDriver, String, String)}.
      *
      * @param email    the email to use for login
      * @param password the password to use for login
@@ -39,6 +44,9 @@ public class CheckoutPage extends BasePage {
             // Login and return the page object that follows successful login
             LoginPage loginPage = new LoginPage(driver);
             BasePage basePage = loginPage.loginAs(email, password);
+            if (!(basePage instanceof LoginPage)) {
+                SessionStore.store(driver, email);
+            }
 
             // Check if the login was successful and redirected to CheckoutPage
             if (basePage instanceof CheckoutPage) {
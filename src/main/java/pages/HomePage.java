@@ -2,6 +2,7 @@ package pages;
 
 import java.util.List;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
@@ -10,6 +11,8 @@ import components.NavBar;
 import components.Product;
 import logging.LoggingManager;
 import utilities.DriverFactory;
+import utilities.SessionStore;
+import wait.WaitUtil;
 
 /**
  * HomePage handles the actions and validations on the home page.
@@ -39,6 +42,8 @@ public class HomePage extends BasePage {
     
     private boolean loggedIn = false;
 
+    private static final By LOGIN_LINK = By.xpath("//a[normalize-space()='Login']");
+
     /**
      * Constructor for the HomePage class.
      * 
@@ -48,6 +53,34 @@ public class HomePage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Opens the site logged in as the given user. The login modal is only used the first time a user 
+     * is needed; afterwards the stored session is injected into the browser (see {@link SessionStore}).
+     * 
+     * @param driver   The WebDriver instance used to interact with the web page.
+     * @param email    The email of the user.
+     * @param password The password of the user.
+     * @return The HomePage of the logged-in user.
+     */
+    public static HomePage startAs(WebDriver driver, String email, String password) {
+        SessionStore.startAs(driver, email,
+                () -> new HomePage(driver).navigateToLogin().loginAs(email, password),
+                HomePage::showsLoggedInUser);
+        return new HomePage(driver).setLoggedIn(true);
+    }
+
+    /**
+     * Checks whether the current page shows a logged-in user. The nav bar shows a Login link only 
+     * to anonymous users.
+     * 
+     * @param driver The WebDriver instance used to interact with the web page.
+     * @return True if the nav bar has no Login link.
+     */
+    static boolean showsLoggedInUser(WebDriver driver) {
+        new WaitUtil(driver).isElementPresent(NAV_BAR, normalWaitTime);
+        return driver.findElements(LOGIN_LINK).isEmpty();
+    }
+
     /**
      * Checks if the user is logged in.
      * 
@@ -91,7 +124,7 @@ public class HomePage extends BasePage {
     public ProductsPage submitSearch() {
         click(searchButton);
         LoggingManager.info("Search submitted");
-        return new ProductsPage(driver);
+        return whenReady(new ProductsPage(driver));
     }
 
     /**
@@ -123,7 +156,7 @@ public class HomePage extends BasePage {
         // Wait and validate based on the expected response
         switch (expectedResponse) {
             case "default-page":
-                ProductsPage products = new ProductsPage(DriverFactory.getDriver());
+                ProductsPage products = whenReady(new ProductsPage(DriverFactory.getDriver()));
                 List<Product> productList = products.getFilteredProductsMax(p -> !p.getProductType().equals("sponsored"), normalWaitTime);
                 // if none of the products in the list contain the query
                 boolean noneContainQuery = productList.stream().noneMatch(p -> p.getName().toLowerCase().contains(query.toLowerCase()));
@@ -181,7 +214,7 @@ public class HomePage extends BasePage {
     public CartPage navigateToCart() {
         NavBar navBar = getNavBar();
         navBar.clickNavLink("Cart");
-        getWait().waitImplicitly(1);
+        getWait().waitUntilSettled();
         return new CartPage(driver);  // Using the existing driver instance
     }
 
@@ -8,9 +8,9 @@ import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 import logging.LoggingManager;
+import utilities.CachingElementLocatorFactory;
 import utilities.EventListener;
 
 /**
@@ -45,7 +45,7 @@ public class LoginPage extends BasePage {
     public LoginPage(WebDriver driver) {
         super(driver);
         errorsList = new ArrayList<>(); // Initialize errorsList
-        PageFactory.initElements(driver, this);
+        CachingElementLocatorFactory.initElements(driver, this);
     }
 
     /**
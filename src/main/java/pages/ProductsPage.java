@@ -10,6 +10,7 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -25,7 +26,9 @@ import utilities.EventListener;
  */
 public class ProductsPage extends BasePage {
 
-	@FindBy(css = ".search-product.grid div[data-ref='product-card']")
+	private static final String PRODUCT_CARDS = ".search-product.grid div[data-ref='product-card']";
+
+	@FindBy(css = PRODUCT_CARDS)
 	private List<WebElement> productElements;
 
 	@FindBy(className = "listings-container-module_listings-container_AC4LI")
@@ -42,6 +45,9 @@ public class ProductsPage extends BasePage {
 	
 	private List<Product> productList;
 
+	private static final By LISTINGS_CONTAINER = By.className("listings-container-module_listings-container_AC4LI");
+	private static final By EMPTY_RESULTS = By.className("no-results-title");
+
 	/**
 	 * Constructor to initialize the ProductsPage.
 	 * 
@@ -52,6 +58,20 @@ public class ProductsPage extends BasePage {
 		setToggle();
 	}
 
+	/**
+	 * Waits until either the product listings or the empty results message is visible.
+	 */
+	@Override
+	protected void waitUntilReady() {
+		try {
+			waitUtil.waitFor(ExpectedConditions.or(
+					ExpectedConditions.visibilityOfElementLocated(LISTINGS_CONTAINER),
+					ExpectedConditions.visibilityOfElementLocated(EMPTY_RESULTS)), normalWaitTime);
+		} catch (TimeoutException e) {
+			reportNotReady("Product listings not visible after " + normalWaitTime + "s");
+		}
+	}
+
 	public void setToggle() {
 		try {
 			if(isVisible(toggle)) {
@@ -76,9 +96,15 @@ public class ProductsPage extends BasePage {
 		}
 
 		if (productList == null) {
-		    productList = productElements.stream()
-		                                 .map(el -> new Product(el).initializeProductDetails())
-		                                 .collect(Collectors.toList()); // Initialize product details only once
+			// Read every card's details in one script call, initialize product details only once
+			try {
+				productList = Product.extractAll(driver, PRODUCT_CARDS);
+			} catch (WebDriverException | ClassCastException e) {
+				LoggingManager.warn("Bulk product extraction failed, reading each product card: " + e.getMessage());
+				productList = productElements.stream()
+				                             .map(el -> new Product(el).initializeProductDetails())
+				                             .collect(Collectors.toList());
+			}
 		}
 
 		return productList;
@@ -208,14 +234,16 @@ public class ProductsPage extends BasePage {
 	 */
 	public boolean addToCart(Product product) {
 	    boolean isAdded = false;
+	    // A single batched check decides which of the three ways to add this product applies.
+	    int visible = product.firstVisible(fasterWaitTime, product.addToCartBtn, product.showAllOptions, product.productName);
 
-	    if (product.isVisible(product.addToCartBtn)) {
+	    if (visible == 0) {
 	        isAdded = clickAddToCartButton(product);
-	    } else if (product.isVisible(product.showAllOptions)) {
+	    } else if (visible == 1) {
 	        LoggingManager.info("Add to Cart button is not visible, attempting to show all options.");
 	        isAdded = handleShowAllOptions(product);
 	        
-	    } else if(product.isVisible(product.productName)) {
+	    } else if(visible == 2) {
 	    	setToggle();
 	    	actionUtil.scrollToElement(product.productName);
     		actionUtil.clickElement(product.productName);
@@ -251,7 +279,7 @@ public class ProductsPage extends BasePage {
 	            int initialCount = getProductsInCartCount();
 	            addToCartBtn.click();
 
-	            waitUtil.waitImplicitly(1); // Adjust this based on your page's behavior
+	            waitUtil.waitUntilSettled(); // Let the add-to-cart request and the cart count update finish
 
 	            if(isVisible(drawerCloseBtn)) drawerCloseBtn.click();
 	            if (getProductsInCartCount() > initialCount) {
@@ -8,9 +8,9 @@ import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 import logging.LoggingManager;
+import utilities.CachingElementLocatorFactory;
 import utilities.EventListener;
 
 /**
@@ -209,7 +209,7 @@ public class RegistrationPage extends BasePage {
         LoggingManager.info("Clicking on the register button to submit the registration form");
         registerButton.click();
         
-        return PageFactory.initElements(driver, pageClass);
+        return CachingElementLocatorFactory.initElements(driver, pageClass);
     }
 
     /**
@@ -0,0 +1,220 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * BrowserAdmission decides when another browser may be launched, so concurrent browsers do not push the
+ * machine into swap.
+ * <p>
+ * A browser is admitted only while fewer than the current limit are running and, when
+ * {@code browser_memory_budget_mb} is set, while the resident memory of all browser processes plus one more
+ * browser of average size fits the budget. The limit starts at {@code max_browsers} and follows command
+ * latency additively increasing, multiplicatively decreasing (AIMD): every window of commands whose average
+ * latency exceeds {@code command_latency_target_ms} halves it, every faster window raises it by one.
+ * Browser memory is read from /proc for the JVM's child processes, so the memory budget only applies on Linux.
+ */
+public final class BrowserAdmission {
+
+    private static final int LATENCY_WINDOW = 50;
+    private static final long RSS_SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final BrowserAdmission INSTANCE = new BrowserAdmission(
+            readMaxBrowsers(),
+            ConfigReader.getInt("browser_memory_budget_mb", 0) * 1024L * 1024L,
+            ConfigReader.getInt("command_latency_target_ms", 1000));
+
+    private final int maxBrowsers;
+    private final long memoryBudgetBytes;
+    private final long latencyTargetMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int limit;
+    private int active;
+    private int waiting;
+
+    private long windowTotalMillis;
+    private int windowCount;
+
+    private long sampledRss;
+    private long sampledAt;
+
+    /**
+     * Creates an admission controller.
+     *
+     * @param maxBrowsers         The most browsers that may ever run at once.
+     * @param memoryBudgetBytes   The memory all browsers together may use; 0 for no budget.
+     * @param latencyTargetMillis The average command latency above which the limit is halved.
+     */
+    public BrowserAdmission(int maxBrowsers, long memoryBudgetBytes, long latencyTargetMillis) {
+        this.maxBrowsers = Math.max(maxBrowsers, 1);
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.latencyTargetMillis = latencyTargetMillis;
+        this.limit = this.maxBrowsers;
+    }
+
+    /**
+     * Gets the controller shared by every browser of this JVM.
+     *
+     * @return The shared admission controller.
+     */
+    public static BrowserAdmission get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Waits until another browser may be launched and counts it as running.
+     *
+     * @throws IllegalStateException If the thread is interrupted while waiting.
+     */
+    public void admit() {
+        lock.lock();
+        try {
+            waiting++;
+            boolean logged = false;
+            while (active >= limit || !memoryAllowsAnother()) {
+                if (!logged) {
+                    LoggingManager.info("Waiting to launch a browser: " + active + " running, limit " + limit);
+                    logged = true;
+                }
+                // Timed, so memory is sampled again even when no browser is released.
+                changed.await(1, TimeUnit.SECONDS);
+            }
+            active++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to launch a browser", e);
+        } finally {
+            waiting--;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a browser as stopped and wakes up waiting launches.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            active = Math.max(active - 1, 0);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a launch is waiting for a browser to be released. Idle browsers should then be
+     * quit rather than kept.
+     *
+     * @return true if at least one launch is waiting
+     */
+    public boolean hasWaiters() {
+        lock.lock();
+        try {
+            return waiting > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the latency of one browser command and adjusts the limit at the end of each window.
+     *
+     * @param millis The command latency in milliseconds.
+     */
+    public void recordLatency(long millis) {
+        lock.lock();
+        try {
+            windowTotalMillis += millis;
+            if (++windowCount < LATENCY_WINDOW) {
+                return;
+            }
+            long average = windowTotalMillis / windowCount;
+            windowTotalMillis = 0;
+            windowCount = 0;
+            if (average > latencyTargetMillis && limit > 1) {
+                limit = Math.max(limit / 2, 1);
+                LoggingManager.warn("Average command latency " + average + " ms, browser limit lowered to " + limit);
+            } else if (average <= latencyTargetMillis && limit < maxBrowsers) {
+                limit++;
+                LoggingManager.info("Average command latency " + average + " ms, browser limit raised to " + limit);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the current browser limit.
+     *
+     * @return The number of browsers that may run at once.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks the memory budget. The first browser is always admitted. Called with the lock held.
+     */
+    private boolean memoryAllowsAnother() {
+        if (memoryBudgetBytes <= 0 || active == 0) {
+            return true;
+        }
+        long rss = sampleBrowserRss();
+        return rss == 0 || rss + rss / active <= memoryBudgetBytes;
+    }
+
+    /**
+     * Sums the resident memory of the JVM's descendant processes (drivers and browsers), at most once per second.
+     */
+    private long sampleBrowserRss() {
+        long now = System.nanoTime();
+        if (sampledAt != 0 && now - sampledAt < RSS_SAMPLE_INTERVAL_NANOS) {
+            return sampledRss;
+        }
+        sampledRss = ProcessHandle.current().descendants().mapToLong(process -> readRss(process.pid())).sum();
+        sampledAt = now;
+        return sampledRss;
+    }
+
+    /**
+     * Reads the resident set size of a process from /proc, or 0 where /proc is not available.
+     */
+    private static long readRss(long pid) {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024L;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process exited or this is not Linux.
+        }
+        return 0;
+    }
+
+    /**
+     * Reads {@code max_browsers}, where 0 (the default) means one browser per processor.
+     */
+    private static int readMaxBrowsers() {
+        int maxBrowsers = ConfigReader.getInt("max_browsers", 0);
+        return maxBrowsers > 0 ? maxBrowsers : Runtime.getRuntime().availableProcessors();
+    }
+}
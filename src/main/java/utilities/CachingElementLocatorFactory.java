@@ -0,0 +1,363 @@
+package utilities;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import config.ConfigReader;
+
+/**
+ * CachingElementLocatorFactory makes PageFactory fields keep their element handles until the DOM changes,
+ * instead of running findElement on every access.
+ * <p>
+ * A cached handle is reused while the browser's {@link DomGeneration} is unchanged. Clicking, typing into,
+ * submitting or clearing a field moves the generation on at once, without waiting for the DevTools report of
+ * the change. When a handle turns out to be stale anyway, because a change had not been reported yet, the
+ * field locates its element again and retries the call once. Lists are kept for the current generation in the
+ * same way, and a stale entry locates the list again and takes its entry by index. Browsers whose DOM changes
+ * are not tracked locate on every access, exactly like plain PageFactory fields. Fields annotated with
+ * {@code @CacheLookup} keep their first handle or list as before, and fields without a {@code @FindBy}, {@code @FindBys} or {@code @FindAll} annotation
+ * are not touched.
+ * <p>
+ * Every lookup is timed by the {@link LocatorProfiler}. With {@code xpath_to_css} enabled, XPath locators that
+ * have an exact CSS equivalent are looked up by that selector instead, see {@link XPathToCss}.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private static final boolean REWRITE_XPATH = "true".equalsIgnoreCase(trimmed(ConfigReader.getProperty("xpath_to_css")));
+
+    private final SearchContext context;
+    private final WebDriver driver;
+
+    /**
+     * Creates a factory for fields located under the given context.
+     *
+     * @param context The page's driver or the component's root element.
+     * @param driver  The browser whose DOM generation decides when handles expire.
+     */
+    public CachingElementLocatorFactory(SearchContext context, WebDriver driver) {
+        this.context = context;
+        this.driver = driver;
+    }
+
+    /**
+     * Initializes the {@code @FindBy} fields of a page object or component with caching, stale-safe proxies.
+     *
+     * @param context The page's driver or the component's root element.
+     * @param page    The page object or component to initialize.
+     */
+    public static void initElements(SearchContext context, Object page) {
+        WebDriver driver = context instanceof WebDriver ? (WebDriver) context : DriverFactory.getDriver();
+        CachingElementLocatorFactory factory = new CachingElementLocatorFactory(context, driver);
+        PageFactory.initElements(new StaleRetryingFieldDecorator(factory), page);
+    }
+
+    /**
+     * Instantiates a page object, through its WebDriver constructor if it has one, and initializes its
+     * {@code @FindBy} fields like {@link PageFactory#initElements(WebDriver, Class)} does.
+     *
+     * @param <T>       The type of the page object.
+     * @param driver    The browser the page is shown in.
+     * @param pageClass The class of the page object.
+     * @return The initialized page object.
+     */
+    public static <T> T initElements(WebDriver driver, Class<T> pageClass) {
+        T page;
+        try {
+            try {
+                page = pageClass.getConstructor(WebDriver.class).newInstance(driver);
+            } catch (NoSuchMethodException e) {
+                page = pageClass.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate " + pageClass.getName(), e);
+        }
+        initElements(driver, page);
+        return page;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        Annotations annotations = new Annotations(field);
+        By by = annotations.buildBy();
+        SearchContext searchContext = context;
+        By css = REWRITE_XPATH ? XPathToCss.rewrite(by) : null;
+        if (css != null && context instanceof WebElement && !XPathToCss.isRelative(by)) {
+            // An XPath from the document root searches the whole page even under a component's root element.
+            searchContext = driver;
+        }
+        if (css != null && searchContext != null) {
+            by = css;
+        } else {
+            searchContext = context;
+        }
+        return new CachingElementLocator(searchContext, driver, by, annotations.isLookupCached());
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * Locates one field's element, or its elements, and keeps them for the current DOM generation.
+     */
+    static final class CachingElementLocator implements ElementLocator {
+
+        private final SearchContext context;
+        private final WebDriver driver;
+        private final By by;
+        private final boolean cachedForever;
+
+        private WebElement element;
+        private List<WebElement> elements;
+        private AtomicLong counter;
+        private long elementGeneration;
+        private long elementsGeneration;
+
+        CachingElementLocator(SearchContext context, WebDriver driver, By by, boolean cachedForever) {
+            this.context = context;
+            this.driver = driver;
+            this.by = by;
+            this.cachedForever = cachedForever;
+        }
+
+        @Override
+        public synchronized WebElement findElement() {
+            if (element != null && (cachedForever || isCurrent(elementGeneration))) {
+                return element;
+            }
+            long generation = currentGeneration();
+            long start = System.nanoTime();
+            try {
+                element = context.findElement(by);
+            } finally {
+                profile(start);
+            }
+            elementGeneration = generation;
+            return element;
+        }
+
+        @Override
+        public synchronized List<WebElement> findElements() {
+            if (elements != null && (cachedForever || isCurrent(elementsGeneration))) {
+                return elements;
+            }
+            long generation = currentGeneration();
+            long start = System.nanoTime();
+            try {
+                elements = context.findElements(by);
+            } finally {
+                profile(start);
+            }
+            elementsGeneration = generation;
+            return elements;
+        }
+
+        /**
+         * Forgets the cached handles, so the next access locates them again.
+         */
+        synchronized void invalidate() {
+            element = null;
+            elements = null;
+        }
+
+        /**
+         * Forgets the cached list, so the next access locates it again.
+         */
+        synchronized void invalidateList() {
+            elements = null;
+        }
+
+        /**
+         * Expires the handles of every field of the browser after a command that may have changed the page.
+         */
+        void pageChanged() {
+            DomGeneration.changed(driver);
+        }
+
+        private void profile(long start) {
+            LocatorProfiler profiler = LocatorProfiler.get();
+            if (profiler != null) {
+                profiler.record(by, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Reads the generation before locating, so a change during the lookup expires the result.
+         *
+         * @return The current generation, or -1 if it is not tracked.
+         */
+        private long currentGeneration() {
+            counter = DomGeneration.of(driver);
+            return counter == null ? -1 : counter.get();
+        }
+
+        /**
+         * Checks that nothing changed since the handles were located. A browser replaced by DriverFactory has
+         * a different counter, so its handles expire as well.
+         */
+        private boolean isCurrent(long generation) {
+            AtomicLong current = DomGeneration.of(driver);
+            return current != null && current == counter && current.get() == generation;
+        }
+
+        @Override
+        public String toString() {
+            return "CachingElementLocator '" + by + "'";
+        }
+    }
+
+    /**
+     * Decorates fields with proxies that locate their element again when a cached handle has gone stale.
+     */
+    static final class StaleRetryingFieldDecorator extends DefaultFieldDecorator {
+
+        // Element commands after which the page may differ from what cached handles were located in.
+        private static final Set<String> CHANGES_PAGE = Set.of("click", "sendKeys", "submit", "clear");
+
+        StaleRetryingFieldDecorator(ElementLocatorFactory factory) {
+            super(factory);
+        }
+
+        /**
+         * Leaves fields without a locator annotation alone. PageFactory would otherwise replace them with a
+         * lookup by id or name, which turns a component's root element into a search for an element "root".
+         */
+        @Override
+        public Object decorate(ClassLoader loader, Field field) {
+            if (!field.isAnnotationPresent(FindBy.class) && !field.isAnnotationPresent(FindBys.class)
+                    && !field.isAnnotationPresent(FindAll.class)) {
+                return null;
+            }
+            return super.decorate(loader, field);
+        }
+
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            return elementProxy(loader, locator, fresh -> {
+                if (fresh) {
+                    ((CachingElementLocator) locator).invalidate();
+                }
+                return locator.findElement();
+            });
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected List<WebElement> proxyForListLocator(ClassLoader loader, ElementLocator locator) {
+            // The entry proxies of the last located list, rebuilt whenever the list is located again.
+            Object[] last = {null, null};
+            InvocationHandler handler = (proxy, method, args) -> {
+                List<WebElement> located = locator.findElements();
+                List<WebElement> entries;
+                synchronized (last) {
+                    if (last[0] != located) {
+                        last[0] = located;
+                        last[1] = entryProxies(loader, locator, located);
+                    }
+                    entries = (List<WebElement>) last[1];
+                }
+                return invoke(method, entries, args);
+            };
+            return (List<WebElement>) Proxy.newProxyInstance(loader, new Class<?>[] {List.class}, handler);
+        }
+
+        /**
+         * Creates proxies for the entries of a located list, which use the located element until it goes stale
+         * and then locate their entry again by index.
+         */
+        private static List<WebElement> entryProxies(ClassLoader loader, ElementLocator locator, List<WebElement> located) {
+            List<WebElement> entries = new ArrayList<>(located.size());
+            for (int i = 0; i < located.size(); i++) {
+                int index = i;
+                WebElement[] current = {located.get(i)};
+                entries.add(elementProxy(loader, locator, fresh -> {
+                    if (fresh) {
+                        if (locator instanceof CachingElementLocator) {
+                            ((CachingElementLocator) locator).invalidateList();
+                        }
+                        List<WebElement> relocated = locator.findElements();
+                        if (index >= relocated.size()) {
+                            throw new StaleElementReferenceException("Element " + index + " of " + locator + " is gone");
+                        }
+                        current[0] = relocated.get(index);
+                    }
+                    return current[0];
+                }));
+            }
+            return Collections.unmodifiableList(entries);
+        }
+
+        /**
+         * Creates an element proxy that retries a call once with a freshly located element if the cached one
+         * is stale, and expires the cached handles after a call that may have changed the page.
+         */
+        private static WebElement elementProxy(ClassLoader loader, ElementLocator locator, ElementSupplier supplier) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if ("toString".equals(method.getName())) {
+                    return "Proxy element for: " + locator;
+                }
+                WebElement element = supplier.get(false);
+                if ("getWrappedElement".equals(method.getName())) {
+                    return element;
+                }
+                try {
+                    return invoke(method, element, args);
+                } catch (StaleElementReferenceException e) {
+                    if (!(locator instanceof CachingElementLocator)) {
+                        throw e;
+                    }
+                    return invoke(method, supplier.get(true), args);
+                } finally {
+                    if (CHANGES_PAGE.contains(method.getName()) && locator instanceof CachingElementLocator) {
+                        ((CachingElementLocator) locator).pageChanged();
+                    }
+                }
+            };
+            return (WebElement) Proxy.newProxyInstance(loader,
+                    new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class}, handler);
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        private interface ElementSupplier {
+
+            /**
+             * Gets the element to call.
+             *
+             * @param fresh Whether the element must be located again because the last one went stale.
+             */
+            WebElement get(boolean fresh);
+        }
+    }
+}
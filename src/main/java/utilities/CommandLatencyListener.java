@@ -0,0 +1,47 @@
+package utilities;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * A WebDriver listener that measures how long cheap driver and element commands take and reports it
+ * to {@link BrowserAdmission}, which lowers or raises the number of concurrent browsers accordingly.
+ * <p>
+ * Only reads of browser state are measured, since their time depends on how busy the machine is. Page loads,
+ * clicks that may navigate, element lookups that may wait implicitly and scripts, such as the async scripts
+ * that wait for DOM changes or for the application to settle, take as long as the site needs and would lower
+ * the limit on their own.
+ */
+public class CommandLatencyListener implements WebDriverListener {
+
+    private static final Set<String> PROBES = Set.of("getTitle", "getCurrentUrl", "getWindowHandle",
+            "getText", "getTagName", "getAttribute", "getDomAttribute", "getDomProperty", "getCssValue",
+            "isDisplayed", "isEnabled", "isSelected", "getRect", "getLocation", "getSize");
+
+    // Commands of one browser run on the test thread that owns it.
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (PROBES.contains(method.getName())) {
+            startedAt.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        Long start = startedAt.get();
+        if (start != null) {
+            startedAt.remove();
+            BrowserAdmission.get().recordLatency((System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        startedAt.remove();
+    }
+}
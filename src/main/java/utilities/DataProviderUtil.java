@@ -1,22 +1,45 @@
 package utilities;
 
-import file.ExcelReader;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.testng.annotations.DataProvider;
-import java.io.File;
+
+import data.LoginRow;
+import data.ProductRow;
+import data.RegistrationRow;
+import data.RowMapper;
+import data.SearchRow;
+import data.SheetRowIterator;
+import data.SheetTable;
+import data.TestDataStore;
+import data.WorkbookSnapshot;
 
 /**
  * DataProviderUtil class provides DataProvider methods to supply test data
  * from Excel sheets to TestNG test methods.
+ * All reads go through the shared {@link WorkbookSnapshot}, so the workbook is parsed
+ * once per JVM no matter how many instances or providers are created.
+ * The snapshot is immutable, so providers are safe to run in parallel (see {@link ParallelDataProviders}).
+ * The only state of the class are the open streaming providers, which are closed once they are exhausted
+ * or, if TestNG stops consuming them early, when their test class finishes (see {@link #closeStreams(Class)}).
  */
 public class DataProviderUtil {
 
-    private static final String DATA_PATH = System.getProperty("user.dir") + File.separator + "src" + File.separator
-            + "test" + File.separator + "resources" + File.separator + "testdata.xlsx";
-    private static ExcelReader reader;
- 
-    // Initialize the ExcelReader once in the constructor
-    public DataProviderUtil() {
-        reader = new ExcelReader(DATA_PATH);
+    // Streams that have not been exhausted yet, by the test class they feed.
+    private static final Map<Class<?>, List<SheetRowIterator>> openStreams = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the shared test data snapshot, loading it on first use.
+     *
+     * @return The workbook snapshot.
+     */
+    private static WorkbookSnapshot reader() {
+        return TestDataStore.get();
     }
 
     /**
@@ -26,6 +49,7 @@ public class DataProviderUtil {
      */
     @DataProvider(name = "searchData")
     public Object[][] getSearchData() {
+        WorkbookSnapshot reader = reader();
         String sheetName = "search data";
         int rowCount = reader.getRowCount(sheetName) - 1; // Adjusted for header row
 
@@ -49,6 +73,7 @@ public class DataProviderUtil {
      */
     @DataProvider(name = "registrationData")
     public Object[][] getRegistrationData() {
+        WorkbookSnapshot reader = reader();
         String sheetName = "registration form";
         int rowCount = reader.getRowCount(sheetName);
         int colCount = 8; // Number of columns in the registration form
@@ -73,6 +98,7 @@ public class DataProviderUtil {
      */
     @DataProvider(name = "loginData")
     public Object[][] getLoginData() {
+        WorkbookSnapshot reader = reader();
         String sheetName = "login form";
         int rowCount = reader.getRowCount(sheetName);
         int colCount = 6; // Number of columns in the login form
@@ -97,6 +123,7 @@ public class DataProviderUtil {
      */
     @DataProvider(name = "productSearchData")
     public Object[][] getProductSearchData() {
+        WorkbookSnapshot reader = reader();
         String sheetName = "products";
         int rowCount = reader.getRowCount(sheetName);
         int colCount = 9; // Assuming there are 9 columns in total
@@ -114,6 +141,145 @@ public class DataProviderUtil {
         return data;
     }
 
+    /**
+     * Typed variant of {@link #getSearchData()}.
+     *
+     * @return One {@link SearchRow} per search query in the "search data" sheet.
+     */
+    @DataProvider(name = "searchRows")
+    public Object[][] getSearchRows() {
+        return bindRows("search data", SearchRow.class);
+    }
+
+    /**
+     * Typed variant of {@link #getRegistrationData()}.
+     *
+     * @return One {@link RegistrationRow} per test case in the "registration form" sheet.
+     */
+    @DataProvider(name = "registrationRows")
+    public Object[][] getRegistrationRows() {
+        return bindRows("registration form", RegistrationRow.class);
+    }
+
+    /**
+     * Typed variant of {@link #getLoginData()}.
+     *
+     * @return One {@link LoginRow} per test case in the "login form" sheet.
+     */
+    @DataProvider(name = "loginRows")
+    public Object[][] getLoginRows() {
+        return bindRows("login form", LoginRow.class);
+    }
+
+    /**
+     * Typed variant of {@link #getProductSearchData()}. Price, rating and reviews are converted once here.
+     *
+     * @return One {@link ProductRow} per product in the "products" sheet.
+     */
+    @DataProvider(name = "productRows")
+    public Object[][] getProductRows() {
+        return bindRows("products", ProductRow.class);
+    }
+
+    /**
+     * Binds the data rows of a sheet to a row class, one row per test invocation.
+     *
+     * @param sheetName The name of the sheet to bind.
+     * @param type      The row class, with fields annotated by column header.
+     * @return A 2D Object array with a single typed row per invocation.
+     */
+    private static Object[][] bindRows(String sheetName, Class<?> type) {
+        SheetTable sheet = reader().getSheet(sheetName);
+        if (sheet == null) {
+            throw new IllegalStateException("Sheet not found: " + sheetName);
+        }
+        List<?> rows = RowMapper.of(type).bind(sheet);
+        Object[][] data = new Object[rows.size()][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Object[] {rows.get(i)};
+        }
+        return data;
+    }
+
+    /**
+     * Streaming variant of {@link #getSearchData()} for large sheets.
+     * Rows are parsed lazily with the XSSF event API, so tests start before the whole sheet is read.
+     *
+     * @param testMethod The test method the rows are for, injected by TestNG.
+     * @return An iterator over query name, search value and expected result rows.
+     */
+    @DataProvider(name = "searchDataStream")
+    public Iterator<Object[]> streamSearchData(Method testMethod) {
+        return streamRows(testMethod.getDeclaringClass(), "search data", 0, 3);
+    }
+
+    /**
+     * Streaming variant of {@link #getProductSearchData()} for large sheets.
+     * Rows are parsed lazily with the XSSF event API, so tests start before the whole sheet is read.
+     *
+     * @param testMethod The test method the rows are for, injected by TestNG.
+     * @return An iterator over product search rows, excluding the first two columns.
+     */
+    @DataProvider(name = "productSearchDataStream")
+    public Iterator<Object[]> streamProductSearchData(Method testMethod) {
+        return streamRows(testMethod.getDeclaringClass(), "products", 2, 9);
+    }
+
+    /**
+     * Stops the streaming providers of a test class that were not consumed to the end, for example because
+     * a test failed or the remaining invocations were skipped. Their parser threads would otherwise stay
+     * blocked on a full queue for the rest of the run.
+     *
+     * @param testClass The test class whose streams to close.
+     */
+    public static void closeStreams(Class<?> testClass) {
+        List<SheetRowIterator> streams = openStreams.remove(testClass);
+        if (streams != null) {
+            streams.forEach(SheetRowIterator::close);
+        }
+    }
+
+    /**
+     * Streams the data rows of a sheet, keeping only the columns in the given range.
+     *
+     * @param owner     The test class the rows are for, which closes the stream if it is abandoned.
+     * @param sheetName The name of the sheet to stream.
+     * @param firstCol  The first column to keep (inclusive).
+     * @param endCol    The last column to keep (exclusive).
+     * @return An iterator over the selected columns of each non-empty data row.
+     */
+    private static Iterator<Object[]> streamRows(Class<?> owner, String sheetName, int firstCol, int endCol) {
+        SheetRowIterator rows = new SheetRowIterator(TestDataStore.DATA_PATH.toFile(), sheetName);
+        List<SheetRowIterator> streams = openStreams.computeIfAbsent(owner, k -> new CopyOnWriteArrayList<>());
+        streams.add(rows);
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                boolean more = false;
+                try {
+                    more = rows.hasNext();
+                    return more;
+                } finally {
+                    // Exhausted or failed, either way the parser thread is no longer needed.
+                    if (!more) {
+                        rows.close();
+                        streams.remove(rows);
+                    }
+                }
+            }
+
+            @Override
+            public Object[] next() {
+                String[] cells = rows.next();
+                Object[] data = new Object[endCol - firstCol];
+                for (int j = firstCol; j < endCol && j < cells.length; j++) {
+                    data[j - firstCol] = cells[j];
+                }
+                return data;
+            }
+        };
+    }
+
     /**
      * Retrieves the value from the specified sheet and key.
      *
@@ -122,13 +288,31 @@ public class DataProviderUtil {
      * @return The value corresponding to the key in the second column, or null if not found.
      */
     public String getValue(String sheetName, String key) {
-        // Use the existing getValue method from ExcelReader
-        return reader.getValue(sheetName, key);
+        return reader().getValue(sheetName, key);
     }
     
+    /**
+     * Retrieves a value by a composite key, e.g. test case ID and product ID on the "products" sheet.
+     * Lookups use a hash index that is built once per sheet and key columns.
+     *
+     * @param sheetName   The name of the sheet to read from.
+     * @param keyColumns  The zero-based key columns.
+     * @param keyValues   One value per key column.
+     * @param valueColumn The zero-based column to read the value from.
+     * @return The value of the first matching row, or null if not found.
+     */
+    public String getValue(String sheetName, int[] keyColumns, String[] keyValues, int valueColumn) {
+        return reader().getValue(sheetName, keyColumns, keyValues, valueColumn);
+    }
+
+    /**
+     * Retrieves the execution flag for a test from the "execution" sheet.
+     *
+     * @param testname The name of the test method.
+     * @return The value of the "Execution Required" column, or null if the test is not listed.
+     */
     public static String getExecutionStatus(String testname) {
-        // Use the existing getValue method from ExcelReader
     	String sheetName = "execution";
-        return reader.getValue(sheetName, testname);
+        return reader().getValue(sheetName, testname);
     }
 }
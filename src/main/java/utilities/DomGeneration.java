@@ -0,0 +1,125 @@
+package utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import logging.LoggingManager;
+
+/**
+ * DomGeneration counts DOM changes per browser without a WebDriver round trip, so cached element handles
+ * can be checked for freshness for free.
+ * <p>
+ * A MutationObserver injected into every document reports changes through a DevTools binding, coalesced to
+ * one report per burst of mutations. Each report, and each new document, moves the browser's generation on.
+ * Reports arrive over the DevTools connection shortly after the change, so commands known to change the page
+ * (clicks and typing through page object fields, and get, navigation, scripts and actions through
+ * {@link ManagedDriver}) also move the generation on synchronously through {@link #changed(WebDriver)}. A
+ * handle read before a late report may still go stale; the element cache handles that by locating again.
+ * Only Chromium based browsers are tracked.
+ */
+public final class DomGeneration {
+
+    private static final String BINDING = "__domGenerationChanged";
+
+    private static final String OBSERVER_SCRIPT =
+            "(function () {"
+            + "  if (window.__domGenerationInstalled || typeof " + BINDING + " !== 'function') return;"
+            + "  window.__domGenerationInstalled = true;"
+            + "  var pending = false;"
+            + "  function changed() {"
+            + "    if (pending) return;"
+            + "    pending = true;"
+            + "    Promise.resolve().then(function () { pending = false; " + BINDING + "(''); });"
+            + "  }"
+            + "  changed();"
+            + "  new MutationObserver(changed)"
+            + "    .observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+            + "})();";
+
+    // DevTools events arrive on a connection thread, not the test thread.
+    private static final Map<WebDriver, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private DomGeneration() {
+    }
+
+    /**
+     * Starts counting DOM changes in a Chromium based browser. Does nothing for other browsers.
+     *
+     * @param webDriver The newly launched browser.
+     */
+    public static void install(WebDriver webDriver) {
+        if (!(webDriver instanceof ChromiumDriver)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((ChromiumDriver) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            AtomicLong generation = generations.computeIfAbsent(webDriver, d -> new AtomicLong());
+            devTools.addListener(new Event<>("Runtime.bindingCalled", input -> input.read(Json.MAP_TYPE)), event -> {
+                if (BINDING.equals(((Map<?, ?>) event).get("name"))) {
+                    generation.incrementAndGet();
+                }
+            });
+            devTools.send(new Command<>("Runtime.enable", Map.of()));
+            devTools.send(new Command<>("Runtime.addBinding", Map.of("name", BINDING)));
+            devTools.send(new Command<>("Page.enable", Map.of()));
+            devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_SCRIPT)));
+            devTools.send(new Command<>("Runtime.evaluate", Map.of("expression", OBSERVER_SCRIPT)));
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to track DOM changes through DevTools: " + e.getMessage());
+            generations.remove(webDriver);
+        }
+    }
+
+    /**
+     * Starts counting DOM changes of a browser that reports them only through {@link #changed(WebDriver)},
+     * such as a stub driver in unit tests.
+     *
+     * @param webDriver The browser, possibly decorated.
+     * @return The browser's counter.
+     */
+    public static AtomicLong track(WebDriver webDriver) {
+        return generations.computeIfAbsent(ManagedDriver.unwrap(webDriver), d -> new AtomicLong());
+    }
+
+    /**
+     * Moves a browser's generation on right away, after a command of this thread that may have changed
+     * the page. Does nothing for browsers that are not tracked.
+     *
+     * @param webDriver The browser, possibly decorated.
+     */
+    public static void changed(WebDriver webDriver) {
+        AtomicLong generation = of(webDriver);
+        if (generation != null) {
+            generation.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops counting for a browser that is being quit.
+     *
+     * @param webDriver The browser.
+     */
+    public static void uninstall(WebDriver webDriver) {
+        generations.remove(webDriver);
+    }
+
+    /**
+     * Gets the DOM generation counter of a browser.
+     *
+     * @param webDriver The browser, possibly decorated.
+     * @return The counter, or null if DOM changes of this browser are not tracked.
+     */
+    public static AtomicLong of(WebDriver webDriver) {
+        webDriver = ManagedDriver.unwrap(webDriver);
+        return webDriver == null ? null : generations.get(webDriver);
+    }
+}
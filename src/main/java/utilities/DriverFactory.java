@@ -1,22 +1,80 @@
 package utilities;
 
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import config.ConfigReader;
+import logging.LoggingManager;
 
 /**
  * DriverFactory class manages the WebDriver instances for different browsers.
  * It supports initialization, retrieval, and termination of WebDriver instances.
+ * <p>
+ * Browsers are kept in a warm pool of {@code driver_pool_size} instances (config.properties). They are
+ * launched in the background, handed out by {@link #acquireDriver()} and returned by {@link #releaseDriver()},
+ * which resets the browser instead of quitting it so the next test class skips the cold start.
+ * A pool size of 0 launches and quits a browser per class.
+ * <p>
+ * Tests get a {@link ManagedDriver} handle rather than the browser itself. Before each test
+ * {@link #recycleIfNeeded()} replaces the browser behind it when the browser crashed, has run
+ * {@code driver_max_tests} tests, or its JavaScript heap is still above {@code driver_max_js_heap_mb}
+ * after a garbage collection (Chromium browsers only).
+ * <p>
+ * Only browsers in use hold a {@link BrowserAdmission} slot. A browser gives its slot back when it enters
+ * the pool and takes one again when it leaves it, so an idle pooled browser never keeps a launch waiting.
  */
 public class DriverFactory {
 
-    private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static ThreadLocal<ManagedDriver> driver = new ThreadLocal<>();
+
+    private static final int POOL_SIZE = Math.max(ConfigReader.getInt("driver_pool_size", 1), 0);
+    private static final PageLoadStrategy PAGE_LOAD_STRATEGY = readPageLoadStrategy();
+    private static final boolean HEALTH_CHECK = !"false".equalsIgnoreCase(trimmed(ConfigReader.getProperty("driver_pool_health_check")));
+    private static final int MAX_TESTS = Math.max(ConfigReader.getInt("driver_max_tests", 0), 0);
+    private static final long MAX_JS_HEAP_BYTES = Math.max(ConfigReader.getLong("driver_max_js_heap_mb", 0), 0) * 1024L * 1024L;
+
+    // How many tests each idle browser in the pool has run, so driver_max_tests spans classes.
+    private static final Map<WebDriver, Integer> testsRunByBrowser = new ConcurrentHashMap<>();
+
+    // Idle browsers, or browsers still being launched, in the order they become available.
+    private static final Deque<CompletableFuture<WebDriver>> pool = new ConcurrentLinkedDeque<>();
+
+    // How long shutdownPool waits in total for browsers that are still being launched.
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final AtomicInteger launcherCount = new AtomicInteger();
+    private static final ExecutorService launcher = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "driver-pool-" + launcherCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverFactory::shutdownPool, "driver-pool-shutdown"));
+    }
 
     /**
      * Initializes the WebDriver based on the browser and mode specified in the configuration.
@@ -24,6 +82,157 @@ public class DriverFactory {
      * @return the initialized WebDriver instance
      */
     public static WebDriver initDriver() {
+        driver.set(new ManagedDriver(createDriver()));
+        return getDriver();
+    }
+
+    /**
+     * Starts launching browsers in the background until the pool holds {@code driver_pool_size} of them.
+     * Safe to call more than once.
+     */
+    public static synchronized void warmUp() {
+        for (int i = pool.size(); i < POOL_SIZE; i++) {
+            pool.add(launch());
+        }
+        LoggingManager.info("Driver pool warming up " + pool.size() + " browser(s)");
+    }
+
+    /**
+     * Takes a browser from the pool for the current thread, waiting for one that is still launching if needed.
+     * Falls back to launching a new browser when the pool is empty.
+     *
+     * @return the WebDriver instance assigned to the current thread
+     */
+    public static WebDriver acquireDriver() {
+        WebDriver browser = takeBrowser();
+        Integer testsRun = testsRunByBrowser.remove(browser);
+        driver.set(new ManagedDriver(browser, testsRun == null ? 0 : testsRun));
+        return getDriver();
+    }
+
+    /**
+     * Replaces the current thread's browser if it crashed or stopped responding, and counts the coming test.
+     * Call it between tests; the replacement starts on about:blank. A browser that has run
+     * {@code driver_max_tests} tests or holds too much JavaScript heap keeps running the tests of its class,
+     * whose setup lives in it, and is retired by {@link #releaseDriver()} at the end of the class.
+     *
+     * @return true if the browser was replaced
+     */
+    public static boolean recycleIfNeeded() {
+        ManagedDriver managed = driver.get();
+        if (managed == null) {
+            return false;
+        }
+        if (!managed.isCrashed() && isHealthy(managed.getTarget())) {
+            managed.startTest();
+            return false;
+        }
+        LoggingManager.warn("Replacing browser after " + managed.getTestsRun() + " test(s): browser crashed or stopped responding");
+        quietlyQuit(managed.getTarget());
+        WebDriver replacement = takeBrowser();
+        testsRunByBrowser.remove(replacement);
+        managed.replace(replacement);
+        managed.startTest();
+        return true;
+    }
+
+    /**
+     * Resets the current thread's browser and returns it to the pool. The browser is quit instead if the
+     * pool is full or the reset fails.
+     */
+    public static void releaseDriver() {
+        ManagedDriver managed = driver.get();
+        if (managed == null) {
+            return;
+        }
+        driver.remove();
+        WebDriver current = managed.getTarget();
+        // A launch waiting for admission needs this browser's memory more than the pool does.
+        // A failed reset shows a crashed browser.
+        if (pool.size() < POOL_SIZE && !BrowserAdmission.get().hasWaiters() && !managed.isCrashed()
+                && !reachedMaxTests(managed) && !exceedsHeapLimit(current) && reset(current)) {
+            testsRunByBrowser.put(current, managed.getTestsRun());
+            BrowserAdmission.get().release();
+            pool.add(CompletableFuture.completedFuture(current));
+            LoggingManager.info("Browser returned to the driver pool");
+        } else {
+            quietlyQuit(current);
+        }
+    }
+
+    /**
+     * Quits the WebDriver instance and removes it from the current thread.
+     */
+    public static void quitDriver() {
+        if (driver.get() != null) {
+            WebDriver current = driver.get().getTarget();
+            RequestBlocker.uninstall(current);
+            QuiescenceDetector.uninstall(current);
+            DomGeneration.uninstall(current);
+            try {
+                current.quit();
+            } finally {
+                driver.remove();
+                BrowserAdmission.get().release();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the WebDriver instance associated with the current thread.
+     *
+     * @return the WebDriver instance
+     */
+    public static WebDriver getDriver() {
+        ManagedDriver managed = driver.get();
+        return managed == null ? null : managed.getProxy();
+    }
+
+    /**
+     * Quits every idle browser in the pool, waiting for browsers that are still being launched. Runs
+     * automatically when the JVM exits.
+     */
+    public static void shutdownPool() {
+        List<CompletableFuture<WebDriver>> pending = new ArrayList<>();
+        CompletableFuture<WebDriver> next;
+        while ((next = pool.poll()) != null) {
+            pending.add(next);
+        }
+        launcher.shutdown();
+        // A launch cannot be interrupted, and the JVM would exit before a callback on it runs, leaving the
+        // browser and its driver process behind, so wait for it here and quit the browser it returns.
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        for (CompletableFuture<WebDriver> future : pending) {
+            try {
+                quietlyQuitIdle(future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                LoggingManager.warn("Gave up waiting for a pooled browser to launch before shutdown");
+            } catch (ExecutionException e) {
+                // The launch failed, so there is no browser to quit.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Launches a new browser as configured in config.properties, once {@link BrowserAdmission} admits it.
+     */
+    private static WebDriver createDriver() {
+        BrowserAdmission.get().admit();
+        try {
+            return launchBrowser();
+        } catch (RuntimeException e) {
+            BrowserAdmission.get().release();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the configured browser.
+     */
+    private static WebDriver launchBrowser() {
         String browserName = ConfigReader.getProperty("browser_name"); // e.g., "chrome"
         String mode = ConfigReader.getProperty("browser_mode"); // e.g., "headless"
         WebDriver webDriver = null;
@@ -31,6 +240,7 @@ public class DriverFactory {
         switch (browserName.toLowerCase()) {
             case "chrome":
                 ChromeOptions cOptions = new ChromeOptions();
+                cOptions.setPageLoadStrategy(PAGE_LOAD_STRATEGY);
                 if (mode.equals("headless")) {
                     cOptions.addArguments("--headless", "--disable-gpu", "--ignore-certificate-errors");
                 }
@@ -38,13 +248,16 @@ public class DriverFactory {
                 break;
             case "firefox":
                 FirefoxOptions fOptions = new FirefoxOptions();
+                fOptions.setPageLoadStrategy(PAGE_LOAD_STRATEGY);
                 if (mode.equals("headless")) {
                     fOptions.addArguments("--headless", "--disable-gpu", "--ignore-certificate-errors");
                 }
+                RequestBlocker.configure(fOptions);
                 webDriver = new FirefoxDriver(fOptions);
                 break;
             case "edge":
                 EdgeOptions eOptions = new EdgeOptions();
+                eOptions.setPageLoadStrategy(PAGE_LOAD_STRATEGY);
                 if (mode.equals("headless")) {
                     eOptions.addArguments("--headless", "--disable-gpu", "--ignore-certificate-errors");
                 }
@@ -54,30 +267,227 @@ public class DriverFactory {
                 throw new IllegalArgumentException("Browser type not supported: " + browserName);
         }
 
-        driver.set(webDriver);
-        WebDriver currentDriver = getDriver();
-        currentDriver.manage().timeouts().implicitlyWait(Duration.ofMillis(100)); 
-        currentDriver.manage().deleteAllCookies();
-        currentDriver.manage().window().maximize();
-        return currentDriver;
+        webDriver.manage().timeouts().implicitlyWait(Duration.ofMillis(100));
+        webDriver.manage().deleteAllCookies();
+        webDriver.manage().window().maximize();
+        RequestBlocker.install(webDriver);
+        QuiescenceDetector.install(webDriver);
+        DomGeneration.install(webDriver);
+        if (MAX_JS_HEAP_BYTES > 0 && webDriver instanceof ChromiumDriver) {
+            enableHeapMetrics((ChromiumDriver) webDriver);
+        }
+        return webDriver;
     }
 
     /**
-     * Quits the WebDriver instance and removes it from the current thread.
+     * Takes a healthy browser from the pool, waiting for one that is still launching if needed, or launches
+     * a new browser when the pool is empty.
      */
-    public static void quitDriver() {
-        if (driver.get() != null) {
-            driver.get().quit();
-            driver.remove();
+    private static WebDriver takeBrowser() {
+        CompletableFuture<WebDriver> next;
+        while ((next = pool.poll()) != null) {
+            WebDriver pooled;
+            try {
+                pooled = next.join();
+            } catch (RuntimeException e) {
+                LoggingManager.warn("Pooled browser failed to launch: " + e.getMessage());
+                continue;
+            }
+            if (!HEALTH_CHECK || isHealthy(pooled)) {
+                try {
+                    // Leaving the pool, the browser needs a slot like a new launch would.
+                    BrowserAdmission.get().admit();
+                } catch (RuntimeException e) {
+                    pool.addFirst(next);
+                    throw e;
+                }
+                LoggingManager.info("Reusing pooled browser");
+                return pooled;
+            }
+            LoggingManager.warn("Discarding unresponsive pooled browser");
+            quietlyQuitIdle(pooled);
+            replenish();
         }
+        return createDriver();
     }
 
     /**
-     * Retrieves the WebDriver instance associated with the current thread.
+     * Checks whether a Chromium browser holds more than {@code driver_max_js_heap_mb} of JavaScript heap.
+     * A garbage collection is only forced when the heap is above the limit.
+     */
+    private static boolean exceedsHeapLimit(WebDriver webDriver) {
+        if (MAX_JS_HEAP_BYTES <= 0 || !(webDriver instanceof ChromiumDriver)) {
+            return false;
+        }
+        long heap = readJsHeap((ChromiumDriver) webDriver);
+        if (heap > MAX_JS_HEAP_BYTES) {
+            heap = collectGarbage((ChromiumDriver) webDriver);
+        }
+        if (heap > MAX_JS_HEAP_BYTES) {
+            LoggingManager.warn("Retiring browser: JS heap of " + heap / (1024 * 1024) + " MB exceeds driver_max_js_heap_mb");
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean reachedMaxTests(ManagedDriver managed) {
+        return MAX_TESTS > 0 && managed.getTestsRun() >= MAX_TESTS;
+    }
+
+    /**
+     * Enables the DevTools performance metrics the heap is read from, once per browser.
+     */
+    private static void enableHeapMetrics(ChromiumDriver webDriver) {
+        try {
+            webDriver.executeCdpCommand("Performance.enable", Collections.emptyMap());
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to enable browser heap metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the JavaScript heap in use.
      *
-     * @return the WebDriver instance
+     * @return the used JS heap in bytes, or -1 if it could not be read
      */
-    public static WebDriver getDriver() {
-        return driver.get();
+    private static long readJsHeap(ChromiumDriver webDriver) {
+        try {
+            Object metrics = webDriver.executeCdpCommand("Performance.getMetrics", Collections.emptyMap()).get("metrics");
+            if (metrics instanceof List) {
+                for (Object metric : (List<?>) metrics) {
+                    Map<?, ?> entry = (Map<?, ?>) metric;
+                    if ("JSHeapUsedSize".equals(entry.get("name"))) {
+                        return ((Number) entry.get("value")).longValue();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to read browser heap metrics: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Forces a garbage collection in the page and reads the JavaScript heap left in use.
+     *
+     * @return the used JS heap in bytes, or -1 if it could not be read
+     */
+    private static long collectGarbage(ChromiumDriver webDriver) {
+        try {
+            webDriver.executeCdpCommand("HeapProfiler.collectGarbage", Collections.emptyMap());
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to collect browser garbage: " + e.getMessage());
+        }
+        return readJsHeap(webDriver);
+    }
+
+    /**
+     * Launches a browser for the pool on a background thread. The browser gives its admission slot back
+     * once it is up, as it stays idle until it is taken.
+     */
+    private static CompletableFuture<WebDriver> launch() {
+        return CompletableFuture.supplyAsync(() -> {
+            WebDriver webDriver = createDriver();
+            BrowserAdmission.get().release();
+            return webDriver;
+        }, launcher);
+    }
+
+    /**
+     * Launches a replacement for a discarded browser so the pool stays warm.
+     */
+    private static synchronized void replenish() {
+        if (pool.size() < POOL_SIZE) {
+            pool.add(launch());
+        }
+    }
+
+    /**
+     * Checks that the browser session still responds.
+     */
+    private static boolean isHealthy(WebDriver webDriver) {
+        try {
+            return !webDriver.getWindowHandles().isEmpty();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Clears cookies and storage, closes extra windows and navigates to about:blank.
+     *
+     * @return true if the browser is clean and can be reused
+     */
+    private static boolean reset(WebDriver webDriver) {
+        try {
+            String firstWindow = webDriver.getWindowHandles().iterator().next();
+            for (String handle : webDriver.getWindowHandles()) {
+                if (!handle.equals(firstWindow)) {
+                    webDriver.switchTo().window(handle).close();
+                }
+            }
+            webDriver.switchTo().window(firstWindow);
+            try {
+                ((JavascriptExecutor) webDriver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (RuntimeException e) {
+                // Pages such as about:blank have no storage to clear.
+            }
+            if (webDriver instanceof ChromiumDriver) {
+                // Clears cookies for every domain, not only the current one.
+                ((ChromiumDriver) webDriver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            }
+            webDriver.manage().deleteAllCookies();
+            webDriver.get("about:blank");
+            return true;
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to reset browser for reuse: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quits a browser in use and gives its admission slot back.
+     */
+    private static void quietlyQuit(WebDriver webDriver) {
+        try {
+            quietlyQuitIdle(webDriver);
+        } finally {
+            BrowserAdmission.get().release();
+        }
+    }
+
+    /**
+     * Quits a pooled browser, which holds no admission slot.
+     */
+    private static void quietlyQuitIdle(WebDriver webDriver) {
+        testsRunByBrowser.remove(webDriver);
+        RequestBlocker.uninstall(webDriver);
+        QuiescenceDetector.uninstall(webDriver);
+        DomGeneration.uninstall(webDriver);
+        try {
+            webDriver.quit();
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to quit browser: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the configured page load strategy (normal, eager or none), falling back to normal when it is
+     * missing or invalid. With eager or none, page objects wait for their own readiness instead.
+     */
+    private static PageLoadStrategy readPageLoadStrategy() {
+        String value = trimmed(ConfigReader.getProperty("page_load_strategy"));
+        PageLoadStrategy strategy = value == null ? null : PageLoadStrategy.fromString(value.toLowerCase());
+        if (strategy == null) {
+            if (value != null) {
+                LoggingManager.warn("Invalid page_load_strategy '" + value + "', using normal");
+            }
+            return PageLoadStrategy.NORMAL;
+        }
+        return strategy;
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
     }
 }
@@ -0,0 +1,75 @@
+package utilities;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+
+/**
+ * ElementCheck is one element condition of a batch that {@link WaitEngine} evaluates in a single script call:
+ * an element located by a {@link By} is present, visible or clickable.
+ * <p>
+ * The check runs inside the page, so only locators the browser can evaluate itself are supported: id, name,
+ * class name, tag name, CSS selector, XPath and (partial) link text. Visibility is judged from the layout and
+ * computed styles, which matches Selenium's isDisplayed for ordinary elements.
+ */
+public final class ElementCheck {
+
+    private final String condition;
+    private final By locator;
+
+    private ElementCheck(String condition, By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the page: " + locator);
+        }
+        this.condition = condition;
+        this.locator = locator;
+    }
+
+    /**
+     * Checks that an element exists.
+     *
+     * @param locator The element's locator.
+     * @return The check.
+     */
+    public static ElementCheck present(By locator) {
+        return new ElementCheck("present", locator);
+    }
+
+    /**
+     * Checks that an element exists and is displayed.
+     *
+     * @param locator The element's locator.
+     * @return The check.
+     */
+    public static ElementCheck visible(By locator) {
+        return new ElementCheck("visible", locator);
+    }
+
+    /**
+     * Checks that an element is displayed and not disabled.
+     *
+     * @param locator The element's locator.
+     * @return The check.
+     */
+    public static ElementCheck clickable(By locator) {
+        return new ElementCheck("clickable", locator);
+    }
+
+    /**
+     * Converts the check into the script argument WaitEngine passes to the page.
+     */
+    Map<String, Object> toScriptArgument() {
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        Map<String, Object> argument = new HashMap<>();
+        argument.put("condition", condition);
+        argument.put("using", parameters.using());
+        argument.put("value", parameters.value());
+        return argument;
+    }
+
+    @Override
+    public String toString() {
+        return condition + " " + locator;
+    }
+}
@@ -0,0 +1,113 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import data.SheetTable;
+import data.TestDataStore;
+import logging.LoggingManager;
+
+/**
+ * ExecutionPlanner class implements the IMethodInterceptor interface to remove disabled tests
+ * before TestNG runs any configuration methods.
+ * The "execution" sheet is read once per JVM. Tests marked "No" are dropped from the run, and a test
+ * class left without any methods never has its @BeforeClass invoked, so no browser is launched for it.
+ */
+public class ExecutionPlanner implements IMethodInterceptor {
+
+    private static final String SHEET_NAME = "execution";
+
+    private static volatile Map<String, String> plan;
+
+    /**
+     * Removes the methods whose execution flag is "No".
+     *
+     * @param methods The methods TestNG is about to run.
+     * @param context The test context.
+     * @return The methods that should run, in their original order.
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<String, List<IMethodInstance>> byClass = new LinkedHashMap<>();
+        Map<String, Integer> disabledByClass = new HashMap<>();
+        List<IMethodInstance> enabled = new ArrayList<>(methods.size());
+
+        for (IMethodInstance method : methods) {
+            String className = method.getMethod().getRealClass().getName();
+            byClass.computeIfAbsent(className, k -> new ArrayList<>()).add(method);
+            if (isDisabled(method.getMethod().getMethodName())) {
+                LoggingManager.info("Execution plan: removing disabled test " + method.getMethod().getQualifiedName());
+                disabledByClass.merge(className, 1, Integer::sum);
+            } else {
+                enabled.add(method);
+            }
+        }
+
+        byClass.forEach((className, classMethods) -> {
+            if (disabledByClass.getOrDefault(className, 0) == classMethods.size()) {
+                LoggingManager.info("Execution plan: skipping " + className + ", all of its tests are disabled");
+            }
+        });
+        return enabled;
+    }
+
+    /**
+     * Checks whether a test is marked "No" in the "execution" sheet.
+     * Names are compared without surrounding whitespace.
+     *
+     * @param testName The name of the test method.
+     * @return True if the test should not run.
+     */
+    public static boolean isDisabled(String testName) {
+        return "No".equalsIgnoreCase(getPlan().get(testName.trim()));
+    }
+
+    /**
+     * Gets the execution flag of every listed test, loading the "execution" sheet on first use.
+     *
+     * @return An unmodifiable map of test name to execution flag.
+     */
+    private static Map<String, String> getPlan() {
+        Map<String, String> result = plan;
+        if (result == null) {
+            synchronized (ExecutionPlanner.class) {
+                result = plan;
+                if (result == null) {
+                    result = loadPlan();
+                    plan = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the test names and execution flags from the "execution" sheet, skipping the header row.
+     * As with a key lookup, the first row for a name wins.
+     */
+    private static Map<String, String> loadPlan() {
+        SheetTable sheet = TestDataStore.get().getSheet(SHEET_NAME);
+        if (sheet == null) {
+            LoggingManager.warn("Sheet with name '" + SHEET_NAME + "' not found, all tests will run.");
+            return Collections.emptyMap();
+        }
+        Map<String, String> result = new HashMap<>();
+        for (int row = 1; row < sheet.getRowSlots(); row++) {
+            String testName = sheet.getCellValue(row, 0);
+            String status = sheet.getCellValue(row, 1);
+            if (testName != null && status != null) {
+                result.putIfAbsent(testName.trim(), status.trim());
+            }
+        }
+        LoggingManager.info("Execution plan loaded for " + result.size() + " tests");
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,148 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.By;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * LocatorProfiler times every element lookup made for page object fields and ranks the locators that cost
+ * the most over a run.
+ * <p>
+ * Lookups answered from the element cache cost nothing and are not counted. When the suite finishes the
+ * {@code locator_profile_top} most expensive locators are logged with their lookup count, mean and worst
+ * time, together with the CSS selector an XPath could be rewritten to, which {@code xpath_to_css} applies
+ * at runtime.
+ */
+public final class LocatorProfiler {
+
+    private static final LocatorProfiler INSTANCE = createDefault();
+    private static final int TOP = ConfigReader.getInt("locator_profile_top", 20);
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a profiler that keeps its statistics in memory.
+     */
+    public LocatorProfiler() {
+    }
+
+    /**
+     * Gets the profiler configured in config.properties, whose ranking {@link TestSetup} logs when the suite finishes.
+     *
+     * @return The shared profiler, or null if {@code locator_profiling} is false.
+     */
+    public static LocatorProfiler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records one lookup.
+     *
+     * @param locator The locator that was looked up.
+     * @param nanos   How long the lookup took, including a failed one.
+     */
+    public void record(By locator, long nanos) {
+        stats.computeIfAbsent(locator.toString(), key -> new Stats(locator)).record(nanos);
+    }
+
+    /**
+     * Ranks the recorded locators by the total time spent looking them up.
+     *
+     * @return The statistics of every locator, most expensive first.
+     */
+    public List<Stats> ranking() {
+        List<Stats> ranking = new ArrayList<>(stats.values());
+        ranking.sort(Comparator.comparingLong(Stats::totalNanos).reversed());
+        return ranking;
+    }
+
+    /**
+     * Logs the {@code locator_profile_top} most expensive locators.
+     */
+    public void report() {
+        report(TOP);
+    }
+
+    /**
+     * Logs the most expensive locators.
+     *
+     * @param top How many locators to log.
+     */
+    public void report(int top) {
+        List<Stats> ranking = ranking();
+        for (int i = 0; i < Math.min(top, ranking.size()); i++) {
+            Stats locator = ranking.get(i);
+            By css = XPathToCss.rewrite(locator.locator());
+            LoggingManager.info("Locator #" + (i + 1) + ": " + locator
+                    + (css == null ? "" : " (CSS equivalent: " + css + ")"));
+        }
+    }
+
+    private static LocatorProfiler createDefault() {
+        if ("false".equalsIgnoreCase(trimmed(ConfigReader.getProperty("locator_profiling")))) {
+            return null;
+        }
+        return new LocatorProfiler();
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * Lookup times of one locator.
+     */
+    public static final class Stats {
+
+        private final By locator;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Stats(By locator) {
+            this.locator = locator;
+        }
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public By locator() {
+            return locator;
+        }
+
+        public synchronized long count() {
+            return count;
+        }
+
+        public synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        public synchronized long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        public synchronized long maxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return locator + " looked up " + count + " times, "
+                    + TimeUnit.NANOSECONDS.toMillis(totalNanos) + " ms in total, "
+                    + TimeUnit.NANOSECONDS.toMillis(meanNanos()) + " ms mean, "
+                    + TimeUnit.NANOSECONDS.toMillis(maxNanos) + " ms worst";
+        }
+    }
+}
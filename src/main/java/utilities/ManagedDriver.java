@@ -0,0 +1,169 @@
+package utilities;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+
+/**
+ * ManagedDriver is the handle {@link DriverFactory} gives to tests for the browser of one thread.
+ * <p>
+ * Calls go through a proxy to the current browser, so DriverFactory can replace a crashed or bloated
+ * browser between tests without invalidating the driver references that tests and page objects hold.
+ * The proxy also notices commands failing because the browser or its renderer crashed, and tells
+ * {@link DomGeneration} about commands that change the page, so cached element handles expire at once.
+ */
+final class ManagedDriver implements InvocationHandler {
+
+    // Commands after which the page may differ from what cached element handles were located in.
+    private static final Set<String> CHANGES_PAGE = Set.of("get", "executeScript", "executeAsyncScript", "perform");
+
+    // Commands returning an object whose every call navigates or switches to another document.
+    private static final Set<String> RETURNS_PAGE_CHANGER = Set.of("navigate", "switchTo");
+
+    private final WebDriver proxy;
+    private volatile WebDriver target;
+    private volatile boolean crashed;
+    private int testsRun;
+
+    ManagedDriver(WebDriver target) {
+        this(target, 0);
+    }
+
+    /**
+     * Creates a handle for a browser that has already run tests for earlier classes.
+     */
+    ManagedDriver(WebDriver target, int testsRun) {
+        this.target = target;
+        this.testsRun = testsRun;
+        this.proxy = (WebDriver) Proxy.newProxyInstance(ManagedDriver.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+                        HasCapabilities.class, Interactive.class, WrapsDriver.class},
+                this);
+    }
+
+    /**
+     * Gets the browser behind a decorated or managed driver, which is what per-browser state is kept for.
+     *
+     * @param webDriver The driver, possibly wrapped by listeners or a ManagedDriver.
+     * @return The innermost driver, or null if the driver is null.
+     */
+    static WebDriver unwrap(WebDriver webDriver) {
+        while (webDriver instanceof WrapsDriver) {
+            webDriver = ((WrapsDriver) webDriver).getWrappedDriver();
+        }
+        return webDriver;
+    }
+
+    /**
+     * Gets the driver handed to tests.
+     */
+    WebDriver getProxy() {
+        return proxy;
+    }
+
+    /**
+     * Gets the browser the proxy currently delegates to.
+     */
+    WebDriver getTarget() {
+        return target;
+    }
+
+    /**
+     * Points the proxy at a new browser and resets the per-browser state.
+     */
+    void replace(WebDriver newTarget) {
+        target = newTarget;
+        crashed = false;
+        testsRun = 0;
+    }
+
+    boolean isCrashed() {
+        return crashed;
+    }
+
+    /**
+     * Counts a test started on the current browser.
+     *
+     * @return The number of tests started on it, including this one.
+     */
+    int startTest() {
+        return ++testsRun;
+    }
+
+    int getTestsRun() {
+        return testsRun;
+    }
+
+    @Override
+    public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getWrappedDriver":
+                return target;
+            case "equals":
+                return self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "toString":
+                return "ManagedDriver(" + target + ")";
+            default:
+                break;
+        }
+        WebDriver current = target;
+        try {
+            Object result = method.invoke(current, args);
+            return RETURNS_PAGE_CHANGER.contains(method.getName()) ? changingPage(method.getReturnType(), result, current) : result;
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (indicatesCrash(cause)) {
+                crashed = true;
+            }
+            throw cause;
+        } finally {
+            if (CHANGES_PAGE.contains(method.getName())) {
+                DomGeneration.changed(current);
+            }
+        }
+    }
+
+    /**
+     * Wraps a navigation or target locator so that every call on it moves the browser's DOM generation on.
+     */
+    private static Object changingPage(Class<?> type, Object delegate, WebDriver browser) {
+        return Proxy.newProxyInstance(ManagedDriver.class.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                DomGeneration.changed(browser);
+            }
+        });
+    }
+
+    /**
+     * Recognizes the errors Selenium reports when the browser process or the page's renderer is gone.
+     */
+    private static boolean indicatesCrash(Throwable error) {
+        if (error instanceof NoSuchSessionException) {
+            return true;
+        }
+        if (!(error instanceof WebDriverException) || error.getMessage() == null) {
+            return false;
+        }
+        String message = error.getMessage().toLowerCase();
+        return message.contains("tab crashed") || message.contains("page crash")
+                || message.contains("session deleted") || message.contains("not reachable")
+                || message.contains("disconnected");
+    }
+}
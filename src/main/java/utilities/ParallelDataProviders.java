@@ -0,0 +1,69 @@
+package utilities;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.annotations.IDataProviderAnnotation;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * ParallelDataProviders class runs the invocations of selected DataProviders in parallel.
+ * <p>
+ * The thread count comes from {@code data_provider_thread_count} in config.properties and the providers
+ * from {@code parallel_data_providers} (comma separated names), by default the search, login and
+ * registration rows. With a thread count of 1 every provider runs sequentially as before.
+ * <p>
+ * Parallel invocations run on TestNG's data provider threads, where {@code BaseTest} gives each invocation
+ * a browser of its own from {@link DriverFactory}, starting on the base URL, and returns it to the pool
+ * afterwards. Only list providers whose tests take their browser from {@code BaseTest.getDriver()} and set
+ * up the page they need when {@code isParallelInvocation()} is true.
+ */
+public class ParallelDataProviders implements IAnnotationTransformer, ISuiteListener {
+
+    private static final String DEFAULT_PROVIDERS = "searchRows,loginRows,registrationRows";
+
+    private static final int THREAD_COUNT = Math.max(ConfigReader.getInt("data_provider_thread_count", 1), 1);
+
+    private static final Set<String> PROVIDERS = Arrays.stream(
+            valueOrDefault(ConfigReader.getProperty("parallel_data_providers"), DEFAULT_PROVIDERS).split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+
+    /**
+     * Marks the configured DataProviders as parallel when more than one thread is configured.
+     *
+     * @param annotation The DataProvider annotation to modify.
+     * @param method     The DataProvider method.
+     */
+    @Override
+    public void transform(IDataProviderAnnotation annotation, Method method) {
+        if (THREAD_COUNT > 1 && PROVIDERS.contains(annotation.getName())) {
+            annotation.setParallel(true);
+            LoggingManager.info("DataProvider '" + annotation.getName()
+                    + "' runs in parallel, each invocation on its own browser");
+        }
+    }
+
+    /**
+     * Applies the configured DataProvider thread count to the suite.
+     *
+     * @param suite The suite that is starting.
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        suite.getXmlSuite().setDataProviderThreadCount(THREAD_COUNT);
+        LoggingManager.info("DataProvider thread count set to " + THREAD_COUNT);
+    }
+
+    private static String valueOrDefault(String value, String defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,67 @@
+package utilities;
+
+import java.util.List;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * ParallelExecution class applies the parallel mode and thread count from config.properties to the suite.
+ * <p>
+ * {@code parallel_mode} is one of none, classes or methods and {@code thread_count} is the number of test
+ * threads, where 0 means one per available processor. Every thread gets its own browser from
+ * {@link DriverFactory}.
+ * <p>
+ * Test classes are single-threaded, so with methods the methods of one class still share its thread and
+ * browser, and only methods of different classes overlap, as with classes.
+ * <p>
+ * The shipped mode is none, because one thing still blocks classes and methods: ReportManager keeps the
+ * screenshot driver in a single static field, so a failure on one thread can capture another thread's
+ * browser. Switch to classes or methods only when screenshots on failure are not needed.
+ */
+public class ParallelExecution implements IAlterSuiteListener {
+
+    /**
+     * Sets the parallel mode and thread count of every suite.
+     *
+     * @param suites The suites about to run.
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        XmlSuite.ParallelMode mode = readMode();
+        int threadCount = readThreadCount();
+        for (XmlSuite suite : suites) {
+            suite.setParallel(mode);
+            suite.setThreadCount(threadCount);
+        }
+        LoggingManager.info("Running suites with parallel=" + mode + " on " + threadCount + " thread(s)");
+    }
+
+    /**
+     * Reads the configured parallel mode, falling back to none when it is missing or invalid.
+     */
+    private static XmlSuite.ParallelMode readMode() {
+        String value = ConfigReader.getProperty("parallel_mode");
+        if (value == null || value.trim().isEmpty()) {
+            return XmlSuite.ParallelMode.NONE;
+        }
+        XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(value.trim().toLowerCase());
+        if (mode == null || mode != XmlSuite.ParallelMode.NONE && mode != XmlSuite.ParallelMode.CLASSES
+                && mode != XmlSuite.ParallelMode.METHODS) {
+            LoggingManager.warn("Unsupported parallel_mode '" + value + "', running serially");
+            return XmlSuite.ParallelMode.NONE;
+        }
+        return mode;
+    }
+
+    /**
+     * Reads the configured thread count, using one thread per processor when it is 0, missing or invalid.
+     */
+    private static int readThreadCount() {
+        int threadCount = ConfigReader.getInt("thread_count", 0);
+        return threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,92 @@
+package utilities;
+
+import java.time.Duration;
+
+import config.ConfigReader;
+
+/**
+ * PollingSchedule describes how long a wait sleeps between checks of its condition.
+ * <p>
+ * An adaptive schedule starts with a short interval, so conditions that hold almost immediately are noticed
+ * within milliseconds, and multiplies it after every failed check up to a maximum, so long waits do not flood
+ * the driver with commands. The default schedule comes from {@code poll_initial_ms}, {@code poll_max_ms} and
+ * {@code poll_backoff_factor} in config.properties.
+ */
+public final class PollingSchedule {
+
+    private static final PollingSchedule DEFAULT = new PollingSchedule(
+            Duration.ofMillis(ConfigReader.getLong("poll_initial_ms", 10)),
+            Duration.ofMillis(ConfigReader.getLong("poll_max_ms", 500)),
+            ConfigReader.getDouble("poll_backoff_factor", 2.0));
+
+    private final Duration initial;
+    private final Duration max;
+    private final double factor;
+
+    private PollingSchedule(Duration initial, Duration max, double factor) {
+        if (initial.isNegative() || initial.isZero() || max.compareTo(initial) < 0 || factor < 1.0) {
+            throw new IllegalArgumentException("Invalid polling schedule: initial " + initial.toMillis()
+                    + " ms, max " + max.toMillis() + " ms, factor " + factor);
+        }
+        this.initial = initial;
+        this.max = max;
+        this.factor = factor;
+    }
+
+    /**
+     * Gets the schedule configured in config.properties, 10 ms growing to 500 ms by default.
+     *
+     * @return The default schedule.
+     */
+    public static PollingSchedule adaptive() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a schedule that starts at one interval and grows by a factor after every check.
+     *
+     * @param initial The first interval.
+     * @param max     The longest interval.
+     * @param factor  The factor the interval grows by, at least 1.
+     * @return The schedule.
+     */
+    public static PollingSchedule exponential(Duration initial, Duration max, double factor) {
+        return new PollingSchedule(initial, max, factor);
+    }
+
+    /**
+     * Creates a schedule that always sleeps the same interval, like a plain FluentWait.
+     *
+     * @param interval The interval.
+     * @return The schedule.
+     */
+    public static PollingSchedule fixed(Duration interval) {
+        return new PollingSchedule(interval, interval, 1.0);
+    }
+
+    /**
+     * Gets the interval before the second check.
+     *
+     * @return The first interval.
+     */
+    public Duration initial() {
+        return initial;
+    }
+
+    /**
+     * Gets the interval that follows the given one.
+     *
+     * @param current The interval just slept.
+     * @return The next interval, never longer than the maximum.
+     */
+    public Duration next(Duration current) {
+        long next = (long) Math.ceil(current.toNanos() * factor);
+        return next >= max.toNanos() ? max : Duration.ofNanos(next);
+    }
+
+    @Override
+    public String toString() {
+        return factor == 1.0 ? initial.toMillis() + " ms"
+                : initial.toMillis() + " ms to " + max.toMillis() + " ms (x" + factor + ")";
+    }
+}
@@ -0,0 +1,219 @@
+package utilities;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * QuiescenceDetector waits until the application under test has settled: no XHR or fetch request is in flight
+ * and the DOM has not changed for {@code settle_quiet_ms}.
+ * <p>
+ * In Chromium based browsers in-flight requests are tracked from DevTools Network events, which also see
+ * requests started before the first wait. Other browsers get a script that wraps XMLHttpRequest and fetch
+ * on first use and counts the requests started after that. DOM silence is always measured in the page
+ * with a MutationObserver. A wait gives up after {@code settle_timeout_ms}, so a page that never goes quiet,
+ * for example one that polls or animates, costs at most that deadline.
+ */
+public final class QuiescenceDetector {
+
+    private static final long QUIET_MILLIS = ConfigReader.getLong("settle_quiet_ms", 100);
+    private static final long TIMEOUT_MILLIS = ConfigReader.getLong("settle_timeout_ms", 2000);
+
+    /**
+     * Installs the page tracker once per document, then resolves with true as soon as the DOM has been silent
+     * for the quiet period and, unless the caller tracks requests itself, no request is in flight; or with
+     * false when the time is up.
+     */
+    private static final String SETTLE_SCRIPT =
+            "var quietMillis = arguments[0], timeout = arguments[1], trackRequests = arguments[2];"
+            + "var done = arguments[arguments.length - 1];"
+            + "var q = window.__quiescence;"
+            + "if (!q) {"
+            + "  q = window.__quiescence = {pending: 0, lastChange: Date.now()};"
+            + "  new MutationObserver(function () { q.lastChange = Date.now(); })"
+            + "    .observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+            + "}"
+            + "if (trackRequests && !q.patched) {"
+            + "  q.patched = true;"
+            + "  var end = function () { q.pending = Math.max(q.pending - 1, 0); q.lastChange = Date.now(); };"
+            + "  var send = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function () {"
+            + "    q.pending++; this.addEventListener('loadend', end); return send.apply(this, arguments);"
+            + "  };"
+            + "  if (window.fetch) {"
+            + "    var fetch = window.fetch;"
+            + "    window.fetch = function () {"
+            + "      q.pending++;"
+            + "      return fetch.apply(this, arguments).then(function (r) { end(); return r; },"
+            + "          function (e) { end(); throw e; });"
+            + "    };"
+            + "  }"
+            + "}"
+            + "var deadline = Date.now() + timeout;"
+            + "(function check() {"
+            + "  var now = Date.now();"
+            + "  if ((q.pending === 0 || !trackRequests) && now - q.lastChange >= quietMillis) {"
+            + "    done(true);"
+            + "  } else if (now >= deadline) {"
+            + "    done(false);"
+            + "  } else {"
+            + "    setTimeout(check, Math.min(quietMillis, 25));"
+            + "  }"
+            + "})();";
+
+    // Requests in flight and the time of the last network event per browser, fed from DevTools event threads.
+    private static final Map<WebDriver, NetworkActivity> activity = new ConcurrentHashMap<>();
+
+    private QuiescenceDetector() {
+    }
+
+    /**
+     * Starts tracking XHR and fetch requests of a Chromium based browser through DevTools. Other browsers
+     * are tracked by the page script instead.
+     *
+     * @param webDriver The newly launched browser.
+     */
+    public static void install(WebDriver webDriver) {
+        if (!(webDriver instanceof ChromiumDriver)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((ChromiumDriver) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            NetworkActivity network = activity.computeIfAbsent(webDriver, d -> new NetworkActivity());
+            devTools.addListener(new Event<>("Network.requestWillBeSent", input -> input.read(Json.MAP_TYPE)), event -> {
+                Object type = ((Map<?, ?>) event).get("type");
+                if ("XHR".equals(type) || "Fetch".equals(type)) {
+                    network.started(String.valueOf(((Map<?, ?>) event).get("requestId")));
+                }
+            });
+            devTools.addListener(new Event<>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                    event -> network.ended(String.valueOf(((Map<?, ?>) event).get("requestId"))));
+            devTools.addListener(new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                    event -> network.ended(String.valueOf(((Map<?, ?>) event).get("requestId"))));
+            devTools.send(new Command<>("Network.enable", Map.of()));
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to track network activity through DevTools: " + e.getMessage());
+            activity.remove(webDriver);
+        }
+    }
+
+    /**
+     * Stops tracking a browser that is being quit.
+     *
+     * @param webDriver The browser.
+     */
+    public static void uninstall(WebDriver webDriver) {
+        activity.remove(webDriver);
+    }
+
+    /**
+     * Waits until the application has settled, for at most {@code settle_timeout_ms}.
+     *
+     * @param webDriver The browser, possibly decorated.
+     * @return true if the application settled, false if the deadline passed first
+     */
+    public static boolean waitUntilSettled(WebDriver webDriver) {
+        return waitUntilSettled(webDriver, Duration.ofMillis(TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Waits until the application has settled.
+     *
+     * @param webDriver The browser, possibly decorated.
+     * @param timeout   The longest time to wait.
+     * @return true if the application settled, false if the deadline passed first
+     */
+    public static boolean waitUntilSettled(WebDriver webDriver, Duration timeout) {
+        NetworkActivity network = activity.get(ManagedDriver.unwrap(webDriver));
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            while (true) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                Object pageQuiet = ((JavascriptExecutor) webDriver).executeAsyncScript(SETTLE_SCRIPT,
+                        QUIET_MILLIS, Math.max(remaining, 0), network == null);
+                if (Boolean.TRUE.equals(pageQuiet) && (network == null || network.quietFor(QUIET_MILLIS))) {
+                    LoggingManager.debug("Application settled after "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                    return true;
+                }
+                if (System.nanoTime() >= deadline) {
+                    LoggingManager.debug("Application still busy after " + timeout.toMillis() + " ms");
+                    return false;
+                }
+                if (network != null) {
+                    // Responses usually change the DOM, so check the page again once the network is quiet.
+                    network.awaitQuiet(QUIET_MILLIS, deadline);
+                }
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            // A navigation replaced the document, or the browser cannot run async scripts.
+            LoggingManager.debug("Could not wait for the application to settle: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * XHR and fetch requests of one browser, as reported by DevTools.
+     */
+    private static final class NetworkActivity {
+
+        private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile long lastEvent = System.nanoTime();
+
+        void started(String requestId) {
+            inFlight.add(requestId);
+            touch();
+        }
+
+        void ended(String requestId) {
+            if (inFlight.remove(requestId)) {
+                touch();
+            }
+        }
+
+        private synchronized void touch() {
+            lastEvent = System.nanoTime();
+            notifyAll();
+        }
+
+        boolean quietFor(long millis) {
+            return inFlight.isEmpty() && System.nanoTime() - lastEvent >= TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        /**
+         * Sleeps until no request has been in flight for the quiet period, or until the deadline.
+         */
+        synchronized void awaitQuiet(long millis, long deadline) {
+            try {
+                while (!quietFor(millis)) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        return;
+                    }
+                    long untilQuiet = inFlight.isEmpty()
+                            ? lastEvent + TimeUnit.MILLISECONDS.toNanos(millis) - now
+                            : deadline - now;
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.max(Math.min(untilQuiet, deadline - now), 1));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
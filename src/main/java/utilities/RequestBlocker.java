@@ -0,0 +1,168 @@
+package utilities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.json.Json;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+import pages.BasePage;
+
+/**
+ * RequestBlocker class stops browsers from loading ads, trackers and heavy media, and reports how many
+ * requests each test blocked.
+ * <p>
+ * It is enabled with {@code block_requests=true} in config.properties. Chrome and Edge block the URL patterns
+ * in {@code blocked_url_patterns} (comma separated, {@code *} wildcards) with the DevTools
+ * {@code Network.setBlockedURLs} command, and blocked requests are counted from {@code Network.loadingFailed}
+ * events. Firefox has no DevTools equivalent, so it gets strict tracking protection and blocked autoplay
+ * instead, and its blocked requests are not counted.
+ */
+public class RequestBlocker implements ITestListener {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(trimmed(ConfigReader.getProperty("block_requests")));
+
+    private static final List<String> PATTERNS = Collections.unmodifiableList(Arrays.stream(
+            valueOrEmpty(ConfigReader.getProperty("blocked_url_patterns")).split(","))
+            .map(String::trim)
+            .filter(pattern -> !pattern.isEmpty())
+            .collect(Collectors.toList()));
+
+    // Blocked request counters per browser; DevTools events arrive on a connection thread, not the test thread.
+    private static final Map<WebDriver, AtomicLong> blockedCounts = new ConcurrentHashMap<>();
+
+    private static final String COUNT_AT_START = "blockedRequestsAtStart";
+
+    /**
+     * Only reports blocked requests when request blocking is enabled in config.properties.
+     *
+     * @return true if requests are blocked
+     */
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Adds the Firefox preferences that come closest to blocking URL patterns.
+     *
+     * @param options The Firefox options to modify.
+     */
+    public static void configure(FirefoxOptions options) {
+        if (!ENABLED) {
+            return;
+        }
+        options.addPreference("browser.contentblocking.category", "strict");
+        options.addPreference("privacy.trackingprotection.enabled", true);
+        options.addPreference("privacy.trackingprotection.socialtracking.enabled", true);
+        options.addPreference("media.autoplay.default", 5);
+    }
+
+    /**
+     * Starts blocking the configured URL patterns in a Chromium based browser and counting blocked requests.
+     * Does nothing for other browsers or when blocking is disabled.
+     *
+     * @param webDriver The newly launched browser.
+     */
+    public static void install(WebDriver webDriver) {
+        if (!ENABLED || !(webDriver instanceof ChromiumDriver)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((ChromiumDriver) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            AtomicLong blocked = blockedCounts.computeIfAbsent(webDriver, d -> new AtomicLong());
+            devTools.addListener(new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)), event -> {
+                if (((Map<?, ?>) event).get("blockedReason") != null) {
+                    blocked.incrementAndGet();
+                }
+            });
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", PATTERNS)));
+            LoggingManager.info("Blocking " + PATTERNS.size() + " URL patterns");
+        } catch (RuntimeException e) {
+            LoggingManager.warn("Failed to enable request blocking: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops counting for a browser that is being quit.
+     *
+     * @param webDriver The browser.
+     */
+    public static void uninstall(WebDriver webDriver) {
+        blockedCounts.remove(webDriver);
+    }
+
+    /**
+     * Gets the number of requests a browser has blocked so far.
+     *
+     * @param webDriver The browser.
+     * @return The blocked request count, 0 if the browser does not block requests.
+     */
+    public static long getBlockedCount(WebDriver webDriver) {
+        AtomicLong blocked = webDriver == null ? null : blockedCounts.get(ManagedDriver.unwrap(webDriver));
+        return blocked == null ? 0 : blocked.get();
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        result.setAttribute(COUNT_AT_START, getBlockedCount(DriverFactory.getDriver()));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        report(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        report(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        report(result);
+    }
+
+    /**
+     * Logs the number of requests blocked while the test ran, and adds it to the test's report.
+     */
+    private void report(ITestResult result) {
+        Object atStart = result.getAttribute(COUNT_AT_START);
+        WebDriver webDriver = DriverFactory.getDriver();
+        if (atStart == null || webDriver == null || !blockedCounts.containsKey(ManagedDriver.unwrap(webDriver))) {
+            return;
+        }
+        // A browser replaced during the test starts counting from zero again.
+        long blocked = Math.max(getBlockedCount(webDriver) - (Long) atStart, 0);
+        result.setAttribute("blockedRequests", blocked);
+        String message = "Blocked " + blocked + " requests during " + result.getMethod().getMethodName();
+        LoggingManager.info(message);
+        Reporter.log(message);
+        BasePage.getReporter().log(message);
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
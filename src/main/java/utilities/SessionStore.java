@@ -0,0 +1,182 @@
+package utilities;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.InvalidCookieDomainException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * SessionStore keeps the authenticated browser state of each user so tests can skip the login modal.
+ * <p>
+ * The first time a user is needed, the login is performed through the UI once and the resulting cookies and
+ * localStorage are captured. Every later browser, new or pooled, gets that state injected and is reloaded,
+ * which takes milliseconds instead of a full UI login. A session is logged in again when it is older than
+ * {@code session_ttl_minutes} (config.properties) or when the injected state no longer results in a logged-in page.
+ */
+public final class SessionStore {
+
+    private static final Duration TTL = Duration.ofMinutes(ConfigReader.getLong("session_ttl_minutes", 30));
+
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    // One lock per user, so concurrent threads needing the same user log in only once.
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private SessionStore() {
+    }
+
+    /**
+     * Makes the browser logged in as the given user, reusing the stored session when it is still valid.
+     *
+     * @param driver     The browser to log in.
+     * @param user       The user key, e.g. the email address.
+     * @param uiLogin    Logs the user in through the UI, used when there is no valid session.
+     * @param isLoggedIn Checks whether the browser's current page shows a logged-in user.
+     * @throws IllegalStateException If the user cannot be logged in.
+     */
+    public static void startAs(WebDriver driver, String user, Runnable uiLogin, Predicate<WebDriver> isLoggedIn) {
+        if (restore(driver, user, isLoggedIn)) {
+            return;
+        }
+        synchronized (locks.computeIfAbsent(user, k -> new Object())) {
+            // Another thread may have logged in while this one was waiting.
+            if (restore(driver, user, isLoggedIn)) {
+                return;
+            }
+            long start = System.nanoTime();
+            uiLogin.run();
+            if (!isLoggedIn.test(driver)) {
+                throw new IllegalStateException("Failed to log in as " + user);
+            }
+            sessions.put(user, capture(driver, TTL));
+            LoggingManager.info("Logged in as " + user + " through the UI in " + (System.nanoTime() - start) / 1_000_000 + " ms, session stored");
+        }
+    }
+
+    /**
+     * Injects the stored session of a user into the browser, if there is a valid one.
+     *
+     * @param driver     The browser to log in.
+     * @param user       The user key, e.g. the email address.
+     * @param isLoggedIn Checks whether the browser's current page shows a logged-in user.
+     * @return true if the browser is now logged in
+     */
+    public static boolean restore(WebDriver driver, String user, Predicate<WebDriver> isLoggedIn) {
+        Session session = sessions.get(user);
+        if (session == null) {
+            return false;
+        }
+        if (Instant.now().isAfter(session.expiresAt)) {
+            LoggingManager.info("Stored session for " + user + " expired");
+            sessions.remove(user, session);
+            return false;
+        }
+        long start = System.nanoTime();
+        inject(driver, session);
+        if (!isLoggedIn.test(driver)) {
+            LoggingManager.info("Stored session for " + user + " was rejected by the site");
+            sessions.remove(user, session);
+            return false;
+        }
+        LoggingManager.info("Restored session for " + user + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return true;
+    }
+
+    /**
+     * Captures the current login state of a browser for a user, e.g. after a login done by a test itself.
+     *
+     * @param driver The logged-in browser.
+     * @param user   The user key, e.g. the email address.
+     */
+    public static void store(WebDriver driver, String user) {
+        store(driver, user, TTL);
+    }
+
+    /**
+     * Captures the current login state of a browser for a user with its own lifetime, e.g. for a site
+     * that expires sessions sooner than {@code session_ttl_minutes}.
+     *
+     * @param driver The logged-in browser.
+     * @param user   The user key, e.g. the email address.
+     * @param ttl    How long the session may be reused.
+     */
+    public static void store(WebDriver driver, String user, Duration ttl) {
+        sessions.put(user, capture(driver, ttl));
+    }
+
+    /**
+     * Discards the stored session of a user, so the next request logs in through the UI.
+     *
+     * @param user The user key, e.g. the email address.
+     */
+    public static void invalidate(String user) {
+        sessions.remove(user);
+    }
+
+    /**
+     * Reads the cookies and localStorage of the browser's current site.
+     */
+    @SuppressWarnings("unchecked")
+    private static Session capture(WebDriver driver, Duration ttl) {
+        Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+        Object storage = ((JavascriptExecutor) driver).executeScript("return Object.assign({}, window.localStorage);");
+        Map<String, String> localStorage = new HashMap<>();
+        if (storage instanceof Map) {
+            ((Map<String, Object>) storage).forEach((key, value) -> localStorage.put(key, String.valueOf(value)));
+        }
+        return new Session(cookies, localStorage, Instant.now().plus(ttl));
+    }
+
+    /**
+     * Replaces the browser's cookies and localStorage with a stored session and reloads the page.
+     */
+    private static void inject(WebDriver driver, Session session) {
+        String baseUrl = ConfigReader.getProperty("base_url");
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(baseUrl)) {
+            // Cookies can only be set for the site the browser is on.
+            driver.get(baseUrl);
+        }
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : session.cookies) {
+            try {
+                driver.manage().addCookie(cookie);
+            } catch (InvalidCookieDomainException e) {
+                LoggingManager.debug("Skipping cookie for another domain: " + cookie.getName());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "var items = arguments[0]; window.localStorage.clear();"
+                        + " Object.keys(items).forEach(function (key) { window.localStorage.setItem(key, items[key]); });",
+                session.localStorage);
+        driver.navigate().refresh();
+    }
+
+    /**
+     * The captured login state of one user.
+     */
+    private static final class Session {
+        private final Set<Cookie> cookies;
+        private final Map<String, String> localStorage;
+        private final Instant expiresAt;
+
+        Session(Set<Cookie> cookies, Map<String, String> localStorage, Instant expiresAt) {
+            this.cookies = Collections.unmodifiableSet(cookies);
+            this.localStorage = Collections.unmodifiableMap(localStorage);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
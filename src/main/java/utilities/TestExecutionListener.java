@@ -6,15 +6,17 @@ import org.testng.SkipException;
 
 import logging.LoggingManager;
 
-
+/**
+ * TestExecutionListener class skips disabled tests that reach execution.
+ * Disabled tests are normally removed up front by {@link ExecutionPlanner}; this listener is the
+ * fallback for suites that do not register the planner.
+ */
 public class TestExecutionListener implements ITestListener {
 
     @Override
     public void onTestStart(ITestResult result) {
         String testName = result.getMethod().getMethodName();
-        String executionRequired = DataProviderUtil.getExecutionStatus(testName);
-        LoggingManager.info("Gettiing execution status");
-        if ("No".equalsIgnoreCase(executionRequired)) {
+        if (ExecutionPlanner.isDisabled(testName)) {
         	LoggingManager.info("Skipping execution for: "+ testName);
             result.setStatus(ITestResult.SKIP);
             result.setThrowable(new SkipException("Skipping test: " + testName));
@@ -1,14 +1,30 @@
 package utilities;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import data.TestDataStore;
 import logging.LoggingManager;
 
 /**
  * TestSetup class implements the ITestListener interface to configure logging before tests start.
- * It sets up logging when the test context starts.
+ * It sets up logging and then bootstraps the suite asynchronously: the driver pool launches browsers
+ * while the test data is loaded on another thread, and neither blocks TestNG from setting up the
+ * reports and the first test class. The time to the first test is logged. When the suite finishes, the
+ * wait telemetry is saved and the locator profile is logged.
  */
-public class TestSetup implements ITestListener {
+public class TestSetup implements ITestListener, ISuiteListener {
+
+    private static final AtomicBoolean bootstrapped = new AtomicBoolean();
+    private static final AtomicBoolean firstTestStarted = new AtomicBoolean();
+    private static volatile long bootstrapStart;
 
     /**
      * This method is invoked before the start of any test context (suite).
@@ -23,5 +39,64 @@ public class TestSetup implements ITestListener {
         LoggingManager.configureLogging();
         System.out.println("Logging configured.");
         LoggingManager.info("Logging configured successfully!!");
+
+        if (bootstrapped.compareAndSet(false, true)) {
+            bootstrap();
+        }
+    }
+
+    /**
+     * Logs how long it took from suite start to the first test.
+     *
+     * @param result the result of the test that is starting
+     */
+    @Override
+    public void onTestStart(ITestResult result) {
+        if (firstTestStarted.compareAndSet(false, true)) {
+            long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            LoggingManager.info("Time to first test: " + (System.nanoTime() - bootstrapStart) / 1_000_000
+                    + " ms after bootstrap, " + sinceJvmStart + " ms after JVM start");
+        }
+    }
+
+    /**
+     * Saves the wait telemetry and logs the most expensive locators once the suite has finished.
+     *
+     * @param suite the suite that finished
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        WaitTelemetry telemetry = WaitTelemetry.get();
+        if (telemetry != null) {
+            try {
+                telemetry.save();
+            } catch (RuntimeException e) {
+                LoggingManager.warn(e.getMessage());
+            }
+        }
+        LocatorProfiler profiler = LocatorProfiler.get();
+        if (profiler != null) {
+            profiler.report();
+        }
+    }
+
+    /**
+     * Starts the slow startup work in parallel without waiting for it. Consumers such as the
+     * DataProviders and BaseTest block on their own resource only if it is still being prepared.
+     */
+    private static void bootstrap() {
+        bootstrapStart = System.nanoTime();
+
+        // Launch pooled browsers in the background while TestNG prepares the first class
+        DriverFactory.warmUp();
+
+        // Parse or map the test data at the same time; TestDataStore.get() waits for this load
+        CompletableFuture.runAsync(TestDataStore::get).whenComplete((ignored, error) -> {
+            if (error != null) {
+                LoggingManager.error("Background test data load failed", error);
+            } else {
+                LoggingManager.info("Test data ready " + (System.nanoTime() - bootstrapStart) / 1_000_000 + " ms into bootstrap");
+            }
+        });
     }
 }
@@ -0,0 +1,485 @@
+package utilities;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+import wait.WaitUtil;
+
+/**
+ * WaitEngine is a {@link WaitUtil} whose element waits react to DOM changes instead of polling the driver.
+ * <p>
+ * For visibility, clickability and text conditions it installs a MutationObserver in the page through
+ * {@code executeAsyncScript}. The script resolves as soon as a mutation makes the condition hold, so the wait
+ * ends within one round trip of the change instead of up to a full polling interval later. Because the
+ * in-page check only approximates Selenium's own, every wake-up is confirmed with the regular
+ * {@link ExpectedConditions} check before the wait returns.
+ * <p>
+ * Browsers that cannot run the script, or runs with {@code event_driven_waits} set to false, fall back to polling.
+ * Polling, both as that fallback and in {@link #waitFor}, follows a {@link PollingSchedule} that backs off from
+ * 10 ms to 500 ms instead of sleeping a fixed 500 ms.
+ * <p>
+ * Every wait is timed and recorded in {@link WaitTelemetry}, which may also shorten its timeout.
+ */
+public class WaitEngine extends WaitUtil {
+
+    private static final boolean EVENT_DRIVEN = !"false".equalsIgnoreCase(trimmed(ConfigReader.getProperty("event_driven_waits")));
+
+    // Longest single executeAsyncScript call, well below the driver's default 30 second script timeout.
+    private static final long SLICE_MILLIS = 10_000;
+    private static final int MAX_SCRIPT_FAILURES = 3;
+
+    // Approximates Selenium's isDisplayed: attached, laid out and not hidden by the element or an ancestor.
+    private static final String VISIBLE_FUNCTION =
+            "function visible(e) {"
+            + "  if (!e || !e.isConnected || e.getClientRects().length === 0) return false;"
+            + "  for (var n = e; n && n.nodeType === 1; n = n.parentElement) {"
+            + "    var style = window.getComputedStyle(n);"
+            + "    if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') return false;"
+            + "  }"
+            + "  return true;"
+            + "}";
+
+    /**
+     * Resolves with true once the condition holds, or with false when the time is up. Besides mutations,
+     * a cheap in-page check every 50 ms catches changes that do not mutate the DOM, such as an input's value
+     * or a finished CSS transition.
+     */
+    private static final String AWAIT_SCRIPT =
+            "var el = arguments[0], condition = arguments[1], text = arguments[2], timeout = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            + VISIBLE_FUNCTION
+            + "function holds() {"
+            + "  switch (condition) {"
+            + "    case 'visible': return visible(el);"
+            + "    case 'clickable': return visible(el) && !el.disabled;"
+            + "    case 'text': return !!el && el.isConnected && (el.innerText || el.textContent || '').indexOf(text) >= 0;"
+            + "    case 'value': return !!el && el.isConnected && String(el.value).indexOf(text) >= 0;"
+            + "    default: return false;"
+            + "  }"
+            + "}"
+            + "if (condition !== 'mutation' && holds()) { done(true); return; }"
+            + "var cleanup;"
+            + "new Promise(function (resolve) {"
+            + "  var observer = new MutationObserver(function () {"
+            + "    if (condition === 'mutation' || holds()) resolve(true);"
+            + "  });"
+            + "  observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+            + "  var check = setInterval(function () { if (condition !== 'mutation' && holds()) resolve(true); }, 50);"
+            + "  var timer = setTimeout(function () { resolve(false); }, timeout);"
+            + "  cleanup = function () { observer.disconnect(); clearInterval(check); clearTimeout(timer); };"
+            + "}).then(function (result) { cleanup(); done(result); });";
+
+    /**
+     * Locates each checked element under the root (or the document) and returns whether its condition holds.
+     */
+    private static final String BATCH_SCRIPT =
+            "var root = arguments[0] || document, checks = arguments[1];"
+            + VISIBLE_FUNCTION
+            + "function locate(check) {"
+            + "  switch (check.using) {"
+            + "    case 'css selector': return root.querySelector(check.value);"
+            + "    case 'xpath': return document.evaluate(check.value, root, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'id': return root.querySelector('#' + CSS.escape(check.value));"
+            + "    case 'name': return root.querySelector('[name=\"' + CSS.escape(check.value) + '\"]');"
+            + "    case 'class name': return root.getElementsByClassName(check.value)[0] || null;"
+            + "    case 'tag name': return root.getElementsByTagName(check.value)[0] || null;"
+            + "    case 'link text':"
+            + "    case 'partial link text':"
+            + "      var links = root.querySelectorAll('a');"
+            + "      for (var i = 0; i < links.length; i++) {"
+            + "        var text = (links[i].innerText || '').trim();"
+            + "        if (check.using === 'link text' ? text === check.value : text.indexOf(check.value) >= 0) return links[i];"
+            + "      }"
+            + "      return null;"
+            + "    default: return null;"
+            + "  }"
+            + "}"
+            + "return checks.map(function (check) {"
+            + "  var el = locate(check);"
+            + "  switch (check.condition) {"
+            + "    case 'present': return !!el;"
+            + "    case 'visible': return visible(el);"
+            + "    case 'clickable': return visible(el) && !el.disabled;"
+            + "    default: return false;"
+            + "  }"
+            + "});";
+
+    private final WebDriver driver;
+    private final WaitTelemetry telemetry;
+
+    // Turned off for this instance after the browser repeatedly fails to run the script.
+    private boolean eventDriven = EVENT_DRIVEN;
+    private int scriptFailures;
+
+    /**
+     * Creates a wait engine for the given driver that records its waits in the configured {@link WaitTelemetry}.
+     *
+     * @param driver The WebDriver instance to wait on.
+     */
+    public WaitEngine(WebDriver driver) {
+        this(driver, WaitTelemetry.get());
+    }
+
+    /**
+     * Creates a wait engine for the given driver.
+     *
+     * @param driver    The WebDriver instance to wait on.
+     * @param telemetry The telemetry to record waits in, or null to neither record nor tune them.
+     */
+    public WaitEngine(WebDriver driver, WaitTelemetry telemetry) {
+        super(driver);
+        this.driver = driver;
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Waits until the element is visible, waking up on DOM changes.
+     *
+     * @param element The element to wait for.
+     * @param timeout The timeout in seconds; 30 seconds if omitted.
+     * @return The visible element.
+     */
+    @Override
+    public WebElement waitForElementToBeVisible(WebElement element, int... timeout) {
+        return awaitDom(element, "visible", null, ExpectedConditions.visibilityOf(element), seconds(timeout));
+    }
+
+    /**
+     * Waits until the element is visible and enabled, waking up on DOM changes.
+     *
+     * @param element The element to wait for.
+     * @param timeout The timeout in seconds.
+     * @return The clickable element.
+     */
+    @Override
+    public WebElement waitForElementToBeClickable(WebElement element, int timeout) {
+        return awaitDom(element, "clickable", null, ExpectedConditions.elementToBeClickable(element), timeout);
+    }
+
+    /**
+     * Waits for a condition, polling on the adaptive schedule instead of every 500 ms.
+     *
+     * @param condition The condition to wait for.
+     * @param timeout   The timeout in seconds; 30 seconds if omitted.
+     * @return The first result of the condition that is neither null nor false.
+     */
+    @Override
+    public <T> T waitFor(Function<WebDriver, T> condition, int... timeout) {
+        return waitFor(condition, seconds(timeout), PollingSchedule.adaptive());
+    }
+
+    /**
+     * Waits for a condition, polling at a fixed interval.
+     *
+     * @param condition       The condition to wait for.
+     * @param timeout         The timeout in seconds.
+     * @param pollingInterval The interval between checks in milliseconds.
+     * @return The first result of the condition that is neither null nor false.
+     */
+    @Override
+    public <T> T waitFor(Function<WebDriver, T> condition, int timeout, int pollingInterval) {
+        return waitFor(condition, timeout, PollingSchedule.fixed(Duration.ofMillis(pollingInterval)));
+    }
+
+    /**
+     * Waits for a condition, polling on the given schedule.
+     *
+     * @param condition The condition to wait for.
+     * @param timeout   The timeout in seconds.
+     * @param schedule  The polling schedule.
+     * @return The first result of the condition that is neither null nor false.
+     */
+    public <T> T waitFor(Function<WebDriver, T> condition, int timeout, PollingSchedule schedule) {
+        return timed(String.valueOf(condition), timeout, effective -> poll(condition, Duration.ofSeconds(effective), schedule));
+    }
+
+    /**
+     * Waits until no XHR or fetch request is in flight and the DOM has stopped changing, for at most
+     * {@code settle_timeout_ms}. Use it instead of a fixed sleep after an action that triggers background work.
+     *
+     * @return true if the application settled, false if the deadline passed first
+     */
+    public boolean waitUntilSettled() {
+        return QuiescenceDetector.waitUntilSettled(driver);
+    }
+
+    /**
+     * Waits until no XHR or fetch request is in flight and the DOM has stopped changing.
+     *
+     * @param timeout The longest time to wait.
+     * @return true if the application settled, false if the deadline passed first
+     */
+    public boolean waitUntilSettled(Duration timeout) {
+        return QuiescenceDetector.waitUntilSettled(driver, timeout);
+    }
+
+    /**
+     * Evaluates several element conditions in one script call, instead of one or more commands per element.
+     *
+     * @param root   The element to search under, or null to search the whole document.
+     * @param checks The conditions to evaluate.
+     * @return Whether each condition holds, in the order given.
+     */
+    public boolean[] check(WebElement root, ElementCheck... checks) {
+        List<Map<String, Object>> arguments = Arrays.stream(checks).map(ElementCheck::toScriptArgument).collect(Collectors.toList());
+        List<?> results = (List<?>) ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, root, arguments);
+        boolean[] holds = new boolean[checks.length];
+        for (int i = 0; i < holds.length; i++) {
+            holds[i] = Boolean.TRUE.equals(results.get(i));
+        }
+        return holds;
+    }
+
+    /**
+     * Waits until at least one of several element conditions holds, evaluating all of them in one script call
+     * per check.
+     *
+     * @param root    The element to search under, or null to search the whole document.
+     * @param timeout The timeout in seconds.
+     * @param checks  The conditions to evaluate.
+     * @return Whether each condition holds, in the order given; at least one is true.
+     * @throws TimeoutException If none of the conditions holds in time.
+     */
+    public boolean[] waitForAny(WebElement root, int timeout, ElementCheck... checks) {
+        return waitFor(batch(root, checks, false), timeout, PollingSchedule.adaptive());
+    }
+
+    /**
+     * Waits until all of several element conditions hold, evaluating them in one script call per check.
+     *
+     * @param root    The element to search under, or null to search the whole document.
+     * @param timeout The timeout in seconds.
+     * @param checks  The conditions to evaluate.
+     * @return Whether each condition holds, all true.
+     * @throws TimeoutException If not all conditions hold in time.
+     */
+    public boolean[] waitForAll(WebElement root, int timeout, ElementCheck... checks) {
+        return waitFor(batch(root, checks, true), timeout, PollingSchedule.adaptive());
+    }
+
+    /**
+     * Builds a wait condition over a batch check that yields the results once any or all checks hold.
+     */
+    private Function<WebDriver, boolean[]> batch(WebElement root, ElementCheck[] checks, boolean all) {
+        return new Function<WebDriver, boolean[]>() {
+            @Override
+            public boolean[] apply(WebDriver ignored) {
+                boolean[] holds = check(root, checks);
+                for (boolean held : holds) {
+                    if (held != all) {
+                        return all ? null : holds;
+                    }
+                }
+                return all ? holds : null;
+            }
+
+            @Override
+            public String toString() {
+                return (all ? "all of " : "any of ") + Arrays.toString(checks);
+            }
+        };
+    }
+
+    /**
+     * Waits until the element's text contains the given text, waking up on DOM changes.
+     *
+     * @param element The element to check.
+     * @param text    The text to wait for.
+     * @param timeout The timeout in seconds.
+     * @return true once the text is present.
+     */
+    public boolean waitForText(WebElement element, String text, int timeout) {
+        return awaitDom(element, "text", text, ExpectedConditions.textToBePresentInElement(element, text), timeout);
+    }
+
+    /**
+     * Waits until the value of an input element contains the given text.
+     *
+     * @param element The input element to check.
+     * @param value   The value to wait for; an empty string matches any value.
+     * @param timeout The timeout in seconds.
+     * @return true once the value is present.
+     */
+    public boolean waitForValue(WebElement element, String value, int timeout) {
+        return awaitDom(element, "value", value, ExpectedConditions.textToBePresentInElementValue(element, value), timeout);
+    }
+
+    /**
+     * Waits for a condition, sleeping in the page until the DOM changes between checks.
+     *
+     * @param element   The element the in-page check looks at.
+     * @param condition The in-page condition: visible, clickable, text or value.
+     * @param text      The text for the text and value conditions, otherwise null.
+     * @param confirm   The Selenium condition that decides whether the wait is over.
+     * @param timeout   The timeout in seconds.
+     * @return The confirmed result of the condition.
+     * @throws TimeoutException If the condition does not hold in time.
+     */
+    private <T> T awaitDom(WebElement element, String condition, String text, ExpectedCondition<T> confirm, int timeout) {
+        return timed(condition + " " + element, timeout, effective -> awaitDom(element, condition, text, confirm, effective, timeout));
+    }
+
+    private <T> T awaitDom(WebElement element, String condition, String text, ExpectedCondition<T> confirm, int timeout,
+            int requestedTimeout) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(timeout).toNanos();
+        // Set when the page considered the condition met but Selenium did not; then only a change helps, and
+        // changes the observer cannot see, such as layout, are caught by re-polling on the adaptive schedule.
+        boolean pageDisagrees = false;
+        Duration repoll = PollingSchedule.adaptive().initial();
+        while (eventDriven) {
+            T result = check(confirm);
+            if (result != null && !Boolean.FALSE.equals(result)) {
+                return result;
+            }
+            long remaining = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: " + confirm + " (tried for " + timeout
+                        + " second(s) waiting on DOM changes" + (timeout < requestedTimeout ? ", tuned down from "
+                        + requestedTimeout : "") + ")");
+            }
+            boolean held;
+            if (pageDisagrees) {
+                awaitChange(element, "mutation", text, Math.min(remaining, repoll.toMillis()));
+                repoll = PollingSchedule.adaptive().next(repoll);
+                held = false;
+            } else {
+                held = awaitChange(element, condition, text, Math.min(remaining, SLICE_MILLIS));
+            }
+            pageDisagrees = held;
+        }
+        return poll(confirm, Duration.ofNanos(Math.max(deadline - System.nanoTime(), 0)), PollingSchedule.adaptive());
+    }
+
+    /**
+     * Runs a wait with the timeout {@link WaitTelemetry} chooses for its call site and records how long it took.
+     *
+     * @param description The locator or condition being waited for.
+     * @param timeout     The timeout requested by the caller, in seconds.
+     * @param wait        The wait, given the timeout to use.
+     */
+    private <T> T timed(String description, int timeout, IntFunction<T> wait) {
+        if (telemetry == null) {
+            return wait.apply(timeout);
+        }
+        String key = WaitTelemetry.key(description);
+        long start = System.nanoTime();
+        try {
+            T result = wait.apply(telemetry.timeoutFor(key, timeout));
+            telemetry.record(key, System.nanoTime() - start, false);
+            return result;
+        } catch (TimeoutException e) {
+            telemetry.record(key, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the waiter script once. Returns when the condition holds, the DOM changed while the element
+     * could not be located yet, or the slice is over.
+     *
+     * @return true if the page reported the condition as met
+     */
+    private boolean awaitChange(WebElement element, String condition, String text, long millis) {
+        try {
+            Object held;
+            try {
+                held = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT, element, condition, text, millis);
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                // Nothing to watch yet: wake up on the next mutation and locate the element again.
+                ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT, null, "mutation", null, millis);
+                held = false;
+            }
+            scriptFailures = 0;
+            return Boolean.TRUE.equals(held);
+        } catch (ScriptTimeoutException e) {
+            // The driver's script timeout is shorter than the slice; check again and carry on.
+        } catch (UnsupportedCommandException | ClassCastException e) {
+            disableEventDriven(e);
+        } catch (WebDriverException e) {
+            // Usually a navigation unloading the document mid-wait.
+            if (++scriptFailures >= MAX_SCRIPT_FAILURES) {
+                disableEventDriven(e);
+            }
+        }
+        return false;
+    }
+
+    private void disableEventDriven(RuntimeException cause) {
+        LoggingManager.warn("Event-driven waits unavailable, falling back to polling: " + cause.getMessage());
+        eventDriven = false;
+    }
+
+    /**
+     * Applies a condition once, treating an element that cannot be found as the condition not holding.
+     */
+    private <T> T check(Function<WebDriver, T> condition) {
+        try {
+            return condition.apply(driver);
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Polls a condition, sleeping between checks as the schedule says. Like {@link WaitUtil#waitFor}, an element
+     * that cannot be found or has gone stale counts as the condition not holding yet.
+     *
+     * @throws TimeoutException If the condition does not hold in time.
+     */
+    private <T> T poll(Function<WebDriver, T> condition, Duration timeout, PollingSchedule schedule) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Duration interval = schedule.initial();
+        RuntimeException lastError = null;
+        while (true) {
+            try {
+                T result = condition.apply(driver);
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    return result;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: waiting for " + condition + " (tried for "
+                        + timeout.getSeconds() + " second(s) polling every " + schedule + ")", lastError);
+            }
+            try {
+                Thread.sleep(Math.max(Math.min(interval.toMillis(), TimeUnit.NANOSECONDS.toMillis(remaining)), 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException(e);
+            }
+            interval = schedule.next(interval);
+        }
+    }
+
+    private static int seconds(int... timeout) {
+        return timeout.length > 0 ? timeout[0] : 30;
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+}
@@ -0,0 +1,283 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import config.ConfigReader;
+import logging.LoggingManager;
+
+/**
+ * WaitTelemetry records how long waits really take, per call site and locator, and uses those numbers to
+ * suggest or apply tighter timeouts than the fixed tiers in config.properties.
+ * <p>
+ * Each key keeps a histogram with logarithmic buckets 5% wide, so percentiles are accurate to 5% whatever the
+ * scale, and the histograms of earlier runs are loaded from {@code wait_telemetry_file} and merged with the
+ * current run when the suite finishes. {@code wait_tuning} selects what to do with them:
+ * <ul>
+ * <li>{@code off} only records,</li>
+ * <li>{@code propose} logs a timeout per call site at the end of the run,</li>
+ * <li>{@code apply} also shortens waits to that timeout once a call site has {@value #MIN_SAMPLES} samples.</li>
+ * </ul>
+ * The proposed timeout is the {@code wait_tuning_percentile} of the recorded durations times
+ * {@code wait_tuning_headroom}, rounded up to whole seconds. Applied timeouts only ever shorten a wait.
+ */
+public final class WaitTelemetry {
+
+    static final int MIN_SAMPLES = 20;
+
+    private static final WaitTelemetry INSTANCE = createDefault();
+
+    private final Path file;
+    private final String tuning;
+    private final double percentile;
+    private final double headroom;
+
+    // Histograms of earlier runs, used for tuning, and of all runs including this one, saved on exit.
+    private final Map<String, Histogram> history = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    // Set by the first wait of this run; a run without waits leaves the file as it is.
+    private volatile boolean recorded;
+
+    /**
+     * Creates a telemetry store.
+     *
+     * @param file       The file histograms are loaded from and saved to, or null to keep them in memory.
+     * @param tuning     The tuning mode: off, propose or apply.
+     * @param percentile The percentile timeouts are proposed at, between 0 and 100.
+     * @param headroom   The factor the percentile is multiplied by.
+     */
+    public WaitTelemetry(Path file, String tuning, double percentile, double headroom) {
+        this.file = file;
+        this.tuning = tuning;
+        this.percentile = percentile;
+        this.headroom = headroom;
+        if (file != null && Files.isRegularFile(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0) {
+                        String key = line.substring(0, tab);
+                        history.put(key, Histogram.parse(line.substring(tab + 1)));
+                        histograms.put(key, Histogram.parse(line.substring(tab + 1)));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                LoggingManager.warn("Ignoring unreadable wait telemetry " + file + ": " + e.getMessage());
+                history.clear();
+                histograms.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the telemetry configured in config.properties, which {@link TestSetup} saves when the suite finishes.
+     *
+     * @return The shared telemetry, or null if {@code wait_telemetry} is false.
+     */
+    public static WaitTelemetry get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the key for a wait from the method that called it and what it waited for. Line numbers are left
+     * out so that editing a page object does not discard the history of its waits.
+     *
+     * @param description The locator or condition being waited for.
+     * @return The telemetry key.
+     */
+    public static String key(String description) {
+        String callSite = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !isWaitFrame(frame.getClassName()))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("unknown"));
+        // Lambda class names, identity hashes and driver sessions change from run to run.
+        String locator = description.replaceAll("\\$\\$Lambda\\S*", "\\$\\$Lambda").replaceAll("@[0-9a-f]+", "")
+                .replaceAll("\\[\\[[^\\]]*\\]\\s*->\\s*", "[").replaceAll("[\\t\\r\\n]", " ");
+        return callSite + " " + locator;
+    }
+
+    /**
+     * Gets the timeout a wait should use.
+     *
+     * @param key     The wait's key.
+     * @param timeout The timeout requested by the caller, in seconds.
+     * @return The tuned timeout in apply mode if it is shorter, otherwise the requested one.
+     */
+    public int timeoutFor(String key, int timeout) {
+        if (!"apply".equals(tuning)) {
+            return timeout;
+        }
+        Histogram recorded = history.get(key);
+        if (recorded == null || recorded.count() < MIN_SAMPLES) {
+            return timeout;
+        }
+        return Math.min(timeout, proposedTimeout(recorded));
+    }
+
+    /**
+     * Records a finished wait.
+     *
+     * @param key      The wait's key.
+     * @param nanos    How long the wait took.
+     * @param timedOut Whether the wait ended with a timeout.
+     */
+    public void record(String key, long nanos, boolean timedOut) {
+        histograms.computeIfAbsent(key, k -> new Histogram()).record(TimeUnit.NANOSECONDS.toMillis(nanos), timedOut);
+        recorded = true;
+    }
+
+    /**
+     * Proposes a timeout for every call site with enough samples.
+     *
+     * @return The proposed timeouts in seconds by key, sorted by key.
+     */
+    public Map<String, Integer> proposeTimeouts() {
+        Map<String, Integer> proposals = new TreeMap<>();
+        histograms.forEach((key, histogram) -> {
+            if (histogram.count() >= MIN_SAMPLES) {
+                proposals.put(key, proposedTimeout(histogram));
+            }
+        });
+        return proposals;
+    }
+
+    /**
+     * Writes all histograms, including the ones loaded from earlier runs, to the telemetry file and logs the
+     * proposed timeouts unless tuning is off. Nothing is written when no wait was recorded in this run.
+     */
+    public void save() {
+        if (!"off".equals(tuning)) {
+            proposeTimeouts().forEach((key, timeout) -> LoggingManager.info("Proposed wait timeout " + timeout
+                    + "s (p" + percentile + " of " + histograms.get(key).count() + " waits): " + key));
+        }
+        if (file == null || !recorded) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(histograms).forEach((key, histogram) -> lines.add(key + "\t" + histogram.format()));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "wait-telemetry", ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save wait telemetry to " + file, e);
+        }
+    }
+
+    private int proposedTimeout(Histogram histogram) {
+        double millis = histogram.percentile(percentile) * headroom;
+        return (int) Math.max(1, Math.ceil(millis / 1000.0));
+    }
+
+    /**
+     * Frames of the waiting machinery itself, skipped when looking for the call site.
+     */
+    private static boolean isWaitFrame(String className) {
+        return className.startsWith("utilities.WaitEngine") || className.equals(WaitTelemetry.class.getName())
+                || className.startsWith("wait.") || className.startsWith("java.")
+                || className.startsWith("org.openqa.selenium.");
+    }
+
+    private static WaitTelemetry createDefault() {
+        if ("false".equalsIgnoreCase(trimmed(ConfigReader.getProperty("wait_telemetry")))) {
+            return null;
+        }
+        String file = trimmed(ConfigReader.getProperty("wait_telemetry_file"));
+        String tuning = trimmed(ConfigReader.getProperty("wait_tuning"));
+        return new WaitTelemetry(Paths.get(file == null ? "wait-telemetry.tsv" : file),
+                tuning == null ? "off" : tuning.toLowerCase(),
+                ConfigReader.getDouble("wait_tuning_percentile", 99), ConfigReader.getDouble("wait_tuning_headroom", 1.5));
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * Wait durations in milliseconds, counted in logarithmic buckets: bucket 0 holds waits under 1 ms and
+     * bucket i holds waits up to 1.05^i ms.
+     */
+    static final class Histogram {
+
+        private static final double BUCKET_GROWTH = 1.05;
+        private static final double LOG_GROWTH = Math.log(BUCKET_GROWTH);
+
+        private final Map<Integer, Long> buckets = new TreeMap<>();
+        private long count;
+        private long timeouts;
+
+        synchronized void record(long millis, boolean timedOut) {
+            int bucket = millis < 1 ? 0 : (int) Math.ceil(Math.log(millis) / LOG_GROWTH);
+            buckets.merge(bucket, 1L, Long::sum);
+            count++;
+            if (timedOut) {
+                timeouts++;
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        /**
+         * Gets the upper bound of the bucket that holds the given percentile.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The duration in milliseconds, 0 if nothing was recorded.
+         */
+        synchronized double percentile(double percentile) {
+            long target = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+                seen += bucket.getValue();
+                if (seen >= target) {
+                    return bucket.getKey() == 0 ? 1 : Math.pow(BUCKET_GROWTH, bucket.getKey());
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Formats the histogram as {@code timeouts<TAB>bucket:count,bucket:count}.
+         */
+        synchronized String format() {
+            StringBuilder builder = new StringBuilder().append(timeouts).append('\t');
+            buckets.forEach((bucket, n) -> builder.append(bucket).append(':').append(n).append(','));
+            return builder.toString();
+        }
+
+        static Histogram parse(String text) {
+            Histogram histogram = new Histogram();
+            String[] parts = text.split("\t", 2);
+            histogram.timeouts = Long.parseLong(parts[0]);
+            if (parts.length > 1) {
+                for (String entry : parts[1].split(",")) {
+                    if (!entry.isEmpty()) {
+                        String[] pair = entry.split(":");
+                        long n = Long.parseLong(pair[1]);
+                        histogram.buckets.merge(Integer.parseInt(pair[0]), n, Long::sum);
+                        histogram.count += n;
+                    }
+                }
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.By;
+
+/**
+ * XPathToCss translates XPath locators that have an exact CSS equivalent, so browsers can match them with
+ * their native selector engine instead of evaluating XPath.
+ * <p>
+ * Only paths of element steps from the document ({@code //}) or the context element ({@code .//}, which
+ * becomes {@code :scope}) are translated, with predicates that test attributes: {@code @a}, {@code @a='v'}, {@code contains(@a,'v')} and
+ * {@code starts-with(@a,'v')}, joined by {@code and}. Unions become selector lists. Anything that depends on
+ * text, such as {@code normalize-space()='Login'} or {@code contains(text(),'...')}, or on position, has no CSS
+ * equivalent and is left alone.
+ */
+public final class XPathToCss {
+
+    private XPathToCss() {
+    }
+
+    /**
+     * Translates an XPath locator into a CSS selector locator.
+     *
+     * @param by The locator.
+     * @return The equivalent CSS selector locator, or null if the locator is not an XPath or has no CSS equivalent.
+     */
+    public static By rewrite(By by) {
+        String xpath = xpathOf(by);
+        String css = xpath == null ? null : toCss(xpath);
+        return css == null ? null : By.cssSelector(css);
+    }
+
+    /**
+     * Translates an XPath expression into a CSS selector.
+     *
+     * @param xpath The XPath expression.
+     * @return The equivalent CSS selector, or null if there is none.
+     */
+    public static String toCss(String xpath) {
+        List<String> selectors = new ArrayList<>();
+        for (String path : splitUnion(xpath)) {
+            String selector = new Parser(path).path();
+            if (selector == null) {
+                return null;
+            }
+            selectors.add(selector);
+        }
+        return selectors.isEmpty() ? null : String.join(", ", selectors);
+    }
+
+    /**
+     * Checks whether an XPath locator searches from the context element rather than from the document.
+     *
+     * @param by The locator.
+     * @return true if the locator is an XPath and every path of it starts with {@code .}.
+     */
+    public static boolean isRelative(By by) {
+        String xpath = xpathOf(by);
+        if (xpath == null) {
+            return false;
+        }
+        for (String path : splitUnion(xpath)) {
+            if (!path.trim().startsWith(".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String xpathOf(By by) {
+        if (!(by instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+        return "xpath".equals(parameters.using()) ? String.valueOf(parameters.value()) : null;
+    }
+
+    /**
+     * Splits an expression at the union operators outside string literals and predicates.
+     */
+    private static List<String> splitUnion(String xpath) {
+        List<String> paths = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < xpath.length(); i++) {
+            char c = xpath.charAt(i);
+            if (quote != 0) {
+                quote = c == quote ? 0 : quote;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                paths.add(xpath.substring(start, i));
+                start = i + 1;
+            }
+        }
+        paths.add(xpath.substring(start));
+        return paths;
+    }
+
+    /**
+     * Parses one location path. Every method returns null as soon as the input leaves the supported subset.
+     */
+    private static final class Parser {
+
+        private final String input;
+        private int position;
+
+        Parser(String input) {
+            this.input = input;
+        }
+
+        String path() {
+            skipSpaces();
+            boolean relative = accept(".");
+            if (!accept("//")) {
+                return null;
+            }
+            // Without :scope, a selector run on an element may match ancestors of it in its leading steps.
+            StringBuilder css = new StringBuilder(relative ? ":scope " : "");
+            while (true) {
+                String step = step();
+                if (step == null) {
+                    return null;
+                }
+                css.append(step);
+                skipSpaces();
+                if (atEnd()) {
+                    return css.toString();
+                }
+                if (accept("//")) {
+                    css.append(' ');
+                } else if (accept("/")) {
+                    css.append(" > ");
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        private String step() {
+            skipSpaces();
+            String name = accept("*") ? "*" : name();
+            if (name == null) {
+                return null;
+            }
+            StringBuilder css = new StringBuilder(name);
+            skipSpaces();
+            while (accept("[")) {
+                do {
+                    String condition = condition();
+                    if (condition == null) {
+                        return null;
+                    }
+                    css.append(condition);
+                } while (acceptKeyword("and"));
+                skipSpaces();
+                if (!accept("]")) {
+                    return null;
+                }
+                skipSpaces();
+            }
+            return css.toString();
+        }
+
+        private String condition() {
+            skipSpaces();
+            String operator = null;
+            if (acceptKeyword("contains")) {
+                operator = "*=";
+            } else if (acceptKeyword("starts-with")) {
+                operator = "^=";
+            }
+            if (operator != null) {
+                skipSpaces();
+                if (!accept("(")) {
+                    return null;
+                }
+                String attribute = attribute();
+                skipSpaces();
+                if (attribute == null || !accept(",")) {
+                    return null;
+                }
+                String value = literal();
+                skipSpaces();
+                // XPath finds the empty string in every value, even a missing one, CSS in none.
+                if (value == null || value.isEmpty() || !accept(")")) {
+                    return null;
+                }
+                return attributeSelector(attribute, operator, value);
+            }
+            String attribute = attribute();
+            if (attribute == null) {
+                return null;
+            }
+            skipSpaces();
+            if (!accept("=")) {
+                return "[" + attribute + "]";
+            }
+            String value = literal();
+            return value == null ? null : attributeSelector(attribute, "=", value);
+        }
+
+        private String attribute() {
+            skipSpaces();
+            return accept("@") ? name() : null;
+        }
+
+        private String name() {
+            int start = position;
+            while (position < input.length()) {
+                char c = input.charAt(position);
+                if (!(Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+                    break;
+                }
+                position++;
+            }
+            if (position == start || !Character.isLetter(input.charAt(start))) {
+                position = start;
+                return null;
+            }
+            return input.substring(start, position);
+        }
+
+        private String literal() {
+            skipSpaces();
+            if (atEnd() || (input.charAt(position) != '\'' && input.charAt(position) != '"')) {
+                return null;
+            }
+            char quote = input.charAt(position);
+            int end = input.indexOf(quote, position + 1);
+            if (end < 0) {
+                return null;
+            }
+            String value = input.substring(position + 1, end);
+            position = end + 1;
+            return value;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            int start = position;
+            skipSpaces();
+            if (input.startsWith(keyword, position)) {
+                int end = position + keyword.length();
+                // A keyword must not be the start of a longer name.
+                if (end >= input.length() || !(Character.isLetterOrDigit(input.charAt(end)) || input.charAt(end) == '-')) {
+                    position = end;
+                    return true;
+                }
+            }
+            position = start;
+            return false;
+        }
+
+        private boolean accept(String token) {
+            if (input.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean atEnd() {
+            return position >= input.length();
+        }
+
+        private static String attributeSelector(String attribute, String operator, String value) {
+            return "[" + attribute + operator + "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]";
+        }
+    }
+}
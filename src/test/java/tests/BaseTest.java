@@ -4,12 +4,15 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.openqa.selenium.support.events.WebDriverListener;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 
 import config.ConfigReader;
 import logging.LoggingManager;
 import pages.BasePage;
+import utilities.CommandLatencyListener;
+import utilities.DataProviderUtil;
 import utilities.DriverFactory;
 import utilities.EventListener;
 
@@ -18,6 +21,12 @@ import utilities.EventListener;
  * BaseTest is a parent class for all test classes in the test suite.
  * It handles the setup and teardown of the WebDriver, including applying a 
  * WebDriverListener for event handling and navigating to the base URL.
+ * 
+ * Each test class drives its own browser, which is set up in @BeforeClass. Concrete test 
+ * classes are annotated with @Test(singleThreaded = true) so that their methods stay on the 
+ * thread that owns the browser, even when the suite runs with parallel="methods"; methods of 
+ * different classes still run concurrently. The annotation is not put on this class, where it 
+ * would turn its public methods into tests of every subclass.
  */
 public class BaseTest {
 
@@ -27,22 +36,22 @@ public class BaseTest {
      */
     protected WebDriver driver;
 
+    // The browser of a parallel DataProvider invocation, which runs on one of TestNG's data provider threads.
+    private final ThreadLocal<WebDriver> invocationDriver = new ThreadLocal<>();
+
     /**
      * Sets up the WebDriver and navigates to the base URL.
      * 
      * This method is annotated with @BeforeClass, so it runs once before all 
-     * test methods in the class. It initializes the WebDriver, applies a 
+     * test methods in the class. It takes a WebDriver from the driver pool, applies a 
      * WebDriverListener for event handling, and navigates to the base URL 
      * specified in the configuration.
      */
     @BeforeClass
     public void setupClass() {
         try {
-            // Initialize WebDriver
-            driver = DriverFactory.initDriver();
-            // Apply the WebDriverListener to handle events during the test
-            WebDriverListener listener = new EventListener();
-            driver = new EventFiringDecorator<>(listener).decorate(driver);
+            // Take a warm WebDriver from the pool and apply the WebDriverListeners
+            driver = decorate(DriverFactory.acquireDriver());
             // Navigate to the base URL
             driver.get(ConfigReader.getProperty("base_url"));
         } catch (Exception e) {
@@ -60,20 +69,105 @@ public class BaseTest {
      */
     @BeforeMethod
     public void setUp() {
-        BasePage.reporter.setDriver(DriverFactory.getDriver());
+        BasePage.getReporter().setDriver(DriverFactory.getDriver());
+    }
+
+    /**
+     * Replaces the browser before a test if it crashed, so one bad browser does not fail the rest 
+     * of the class. Browsers that ran too many tests or hold too much memory are only replaced 
+     * between classes, since the state set up in @BeforeClass lives in the browser.
+     * 
+     * This method has its own name because subclasses reuse setUp() for their @BeforeClass setup.
+     * A replaced browser starts on about:blank and is sent back to the base URL.
+     */
+    @BeforeMethod
+    public void recycleDriver() {
+        if (DriverFactory.recycleIfNeeded()) {
+            getDriver().get(ConfigReader.getProperty("base_url"));
+            BasePage.getReporter().setDriver(DriverFactory.getDriver());
+        }
+    }
+
+    /**
+     * Gives a parallel DataProvider invocation a browser of its own, navigated to the base URL.
+     * 
+     * Invocations of the DataProviders listed in {@code parallel_data_providers} run concurrently on 
+     * TestNG's data provider threads, which have no browser. Tests get the invocation's browser from 
+     * {@link #getDriver()}; it starts on the base URL instead of where @BeforeClass left the class's browser.
+     */
+    @BeforeMethod
+    public void acquireInvocationDriver() {
+        if (DriverFactory.getDriver() != null) {
+            return;
+        }
+        WebDriver own = decorate(DriverFactory.acquireDriver());
+        invocationDriver.set(own);
+        own.get(ConfigReader.getProperty("base_url"));
+        BasePage.getReporter().setDriver(DriverFactory.getDriver());
+    }
+
+    /**
+     * Resets the browser of a parallel DataProvider invocation and returns it to the driver pool.
+     */
+    @AfterMethod(alwaysRun = true)
+    public void releaseInvocationDriver() {
+        if (invocationDriver.get() != null) {
+            invocationDriver.remove();
+            DriverFactory.releaseDriver();
+        }
     }
 
     /**
-     * Cleans up the WebDriver instance after all tests in the class have run.
+     * Gets the browser of the current test: the invocation's own browser in a parallel DataProvider 
+     * invocation, otherwise the class's browser.
+     * 
+     * @return The WebDriver instance to drive in the current test.
+     */
+    protected WebDriver getDriver() {
+        WebDriver own = invocationDriver.get();
+        return own != null ? own : driver;
+    }
+
+    /**
+     * Checks whether the current test is a parallel DataProvider invocation with a browser of its own, 
+     * which has not been through the class's @BeforeClass setup.
+     * 
+     * @return True if the test runs on its own browser.
+     */
+    protected boolean isParallelInvocation() {
+        return invocationDriver.get() != null;
+    }
+
+    /**
+     * Releases the WebDriver instance after all tests in the class have run.
      * 
      * This method is annotated with @AfterClass, so it runs once after all 
-     * test methods in the class have completed. It ensures that the WebDriver 
-     * instance is properly quit, avoiding resource leaks.
+     * test methods in the class have completed. The browser is reset and returned 
+     * to the driver pool for the next class, or quit if the pool is full.
      */
     @AfterClass
     public void tearDown() {
-    	DriverFactory.quitDriver(); // Quit the WebDriver instance
-        LoggingManager.info("Driver quit successfully.");
+    	DriverFactory.releaseDriver(); // Return the WebDriver instance to the pool
+        LoggingManager.info("Driver released successfully.");
+    }
+
+    /**
+     * Stops the streaming DataProviders of this class that were not consumed to the end.
+     * 
+     * This method has its own name because subclasses override tearDown().
+     */
+    @AfterClass(alwaysRun = true)
+    public void closeDataStreams() {
+        DataProviderUtil.closeStreams(getClass());
+    }
+
+    /**
+     * Applies the WebDriverListeners for event handling and command latency to a browser.
+     */
+    private static WebDriver decorate(WebDriver webDriver) {
+        WebDriverListener listener = new EventListener();
+        WebDriverListener latencyListener = new CommandLatencyListener();
+        return new EventFiringDecorator<>(listener, latencyListener).decorate(webDriver);
     }
 }
 
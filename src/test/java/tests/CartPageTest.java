@@ -16,6 +16,7 @@ import pages.CartPage;
 import pages.HomePage;
 import pages.ProductsPage;
 
+@Test(singleThreaded = true)
 public class CartPageTest extends BaseTest{
 
     private ProductsPage productsPage;
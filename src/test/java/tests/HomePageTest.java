@@ -3,6 +3,7 @@ package tests;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import data.SearchRow;
 import logging.LoggingManager;
 import pages.CartPage;
 import pages.HomePage;
@@ -14,6 +15,7 @@ import utilities.DriverFactory;
 /**
  * Test class for verifying various functionalities on the HomePage.
  */
+@Test(singleThreaded = true)
 public class HomePageTest extends BaseTest{
 
     private HomePage homePage;
@@ -88,7 +90,7 @@ public class HomePageTest extends BaseTest{
         CartPage cartPage = new CartPage(DriverFactory.getDriver());
         // Navigate to the Cart page and verify visibility
         cartPage = homePage.navigateToCart();
-        homePage.getWait().waitImplicitly(2);
+        homePage.getWait().waitUntilSettled();
         Assert.assertTrue(cartPage.getTitle().equalsIgnoreCase(title), "Cart title is not correct.");
         Assert.assertTrue(cartPage.isVisible(), "Cart page should be visible.");
         
@@ -101,21 +103,23 @@ public class HomePageTest extends BaseTest{
      * Test to verify the search functionality on the HomePage.
      * The test is data-driven and verifies both valid and invalid search scenarios.
      *
-     * @param queryName  The name of the search query.
-     * @param searchValue  The value to search for.
-     * @param expected  The expected outcome of the search ("results-page" or error message).
+     * @param search The search query and its expected outcome ("results-page" or error message).
      */
-    @Test(priority = 14, dataProvider = "searchData", dataProviderClass = DataProviderUtil.class, groups ={"homepage", "search"})
-    public void verifySearchFunctionality(String queryName, String searchValue, String expected) {
+    @Test(priority = 14, dataProvider = "searchRows", dataProviderClass = DataProviderUtil.class, groups ={"homepage", "search"})
+    public void verifySearchFunctionality(SearchRow search) {
+        String searchValue = search.getSearchValue();
+        String expected = search.getExpected();
         LoggingManager.info("=========== Testing search functionality with query: " + searchValue + " ===========");
         
         boolean resultsFound;
+        // A parallel invocation searches from its own browser
+        HomePage page = isParallelInvocation() ? new HomePage(getDriver()) : homePage;
         
         // Verify the search results based on the expected outcome
         if (expected.equals("results-page")) {
-            resultsFound = homePage.searchValidFor(searchValue).isVisible();
+            resultsFound = page.searchValidFor(searchValue).isVisible();
         } else {
-            resultsFound = homePage.searchForInvalidInput(searchValue, expected);
+            resultsFound = page.searchForInvalidInput(searchValue, expected);
         }
         
         Assert.assertTrue(resultsFound, "Could not handle query: " + searchValue);
@@ -0,0 +1,244 @@
+package tests;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import components.Product;
+import utilities.CachingElementLocatorFactory;
+import utilities.DomGeneration;
+import utilities.LocatorProfiler;
+import utilities.XPathToCss;
+
+/**
+ * Test class for verifying how page object fields locate their elements, and the XPath rewriting and
+ * profiling of their locators.
+ * These tests run against a stub search context and do not need a browser.
+ */
+public class LocatorTest {
+
+    // Lookups made through the stub search context.
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    /**
+     * Test to verify that a field whose handle has gone stale locates its element again and retries the call.
+     */
+    @Test(groups = {"locator"})
+    public void verifyStaleFieldIsLocatedAgain() {
+        StubPage page = new StubPage();
+        CachingElementLocatorFactory.initElements(stubContext(), page);
+
+        // The first located element is stale, the second one answers.
+        Assert.assertEquals(page.title.getText(), "title 2");
+        // Without DOM change tracking every access locates the element, like plain PageFactory fields.
+        Assert.assertEquals(page.title.getText(), "title 3");
+        Assert.assertEquals(lookups.get(), 3);
+    }
+
+    /**
+     * Test to verify that list entries locate their element again by index when they have gone stale.
+     */
+    @Test(groups = {"locator"})
+    public void verifyStaleListEntryIsLocatedAgain() {
+        StubPage page = new StubPage();
+        CachingElementLocatorFactory.initElements(stubContext(), page);
+
+        // The entry is taken from the first located list, whose elements are stale.
+        WebElement entry = page.items.get(1);
+        Assert.assertEquals(entry.getText(), "item 1");
+        Assert.assertEquals(page.items.size(), 2);
+    }
+
+    /**
+     * Test to verify that a cached element is located again once a click changed the page, before any
+     * DevTools report of the change, and that lists are kept until a change is reported.
+     */
+    @Test(groups = {"locator"})
+    public void verifyDomChangeBetweenAccessesIsSeen() {
+        AtomicInteger driverLookups = new AtomicInteger();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(LocatorTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class}, (proxy, method, args) -> {
+                    // The counters are kept by driver identity.
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    int lookup = driverLookups.incrementAndGet();
+                    if ("findElement".equals(method.getName())) {
+                        return stubElement("title " + lookup, false);
+                    }
+                    List<WebElement> elements = new ArrayList<>();
+                    for (int i = 0; i < lookup; i++) {
+                        elements.add(stubElement("item " + i, false));
+                    }
+                    return elements;
+                });
+        AtomicLong generation = DomGeneration.track(driver);
+        try {
+            StubPage page = new StubPage();
+            CachingElementLocatorFactory.initElements(driver, page);
+
+            Assert.assertEquals(page.title.getText(), "title 1");
+            Assert.assertEquals(page.title.getText(), "title 1", "An unchanged page should reuse the handle.");
+            page.title.click();
+            Assert.assertEquals(generation.get(), 1);
+            Assert.assertEquals(page.title.getText(), "title 2", "A click should expire the handle at once.");
+
+            Assert.assertEquals(page.items.size(), 3);
+            Assert.assertEquals(page.items.size(), 3, "An unchanged page should reuse the list.");
+            // A DevTools report of a change expires the list as well.
+            generation.incrementAndGet();
+            Assert.assertEquals(page.items.size(), 4);
+            Assert.assertEquals(driverLookups.get(), 4);
+        } finally {
+            DomGeneration.uninstall(driver);
+        }
+    }
+
+    /**
+     * Test to verify that the page objects' attribute XPaths are rewritten to equivalent CSS selectors.
+     */
+    @Test(groups = {"locator"})
+    public void verifyXPathIsRewrittenToCss() {
+        Assert.assertEquals(XPathToCss.toCss("//input[@id='customer_login_email']"),
+                "input[id=\"customer_login_email\"]");
+        Assert.assertEquals(XPathToCss.toCss("//button[@data-ref='badge-button']"), "button[data-ref=\"badge-button\"]");
+        Assert.assertEquals(XPathToCss.toCss("//p[contains(@data-ref,'cart-summary-items-cost')]//span"),
+                "p[data-ref*=\"cart-summary-items-cost\"] span");
+        Assert.assertEquals(XPathToCss.toCss(
+                "//ul[@class='top-nav-module_header-links_1Ovug']//a[@data-react-link='true'][starts-with(@href, '/sell')]"),
+                "ul[class=\"top-nav-module_header-links_1Ovug\"] a[data-react-link=\"true\"][href^=\"/sell\"]");
+        Assert.assertEquals(XPathToCss.toCss(
+                "//div[@class='cart-module_item_3MErs'] | //div[@class ='cart-item-container-module_item_3Vkqc']"),
+                "div[class=\"cart-module_item_3MErs\"], div[class=\"cart-item-container-module_item_3Vkqc\"]");
+        Assert.assertEquals(XPathToCss.toCss(".//div/a[@title and @rel='nofollow']"), ":scope div > a[title][rel=\"nofollow\"]");
+        Assert.assertEquals(XPathToCss.rewrite(By.xpath("//img[@alt='Takealot']")),
+                By.cssSelector("img[alt=\"Takealot\"]"));
+        Assert.assertTrue(XPathToCss.isRelative(By.xpath(".//span")));
+        Assert.assertFalse(XPathToCss.isRelative(By.xpath("//span")));
+    }
+
+    /**
+     * Test to verify that XPaths testing text or position, or outside the supported subset, are left alone.
+     */
+    @Test(groups = {"locator"})
+    public void verifyXPathWithoutCssEquivalentIsKept() {
+        String[] xpaths = {
+            "//a[normalize-space()='Register']",
+            "//button[normalize-space()='Login']",
+            "//div[contains(text(),'Incorrect Email or Password. Please try again and ')]",
+            "//button[@class='ab-message-button' and text()='NOT NOW']",
+            "//div[@class='a'][1]",
+            "//div[@class!='a']",
+            "//div[@a='b' or @c='d']",
+            "//div[contains(@class,'')]",
+            "//div/..",
+            "id('main')",
+        };
+        for (String xpath : xpaths) {
+            Assert.assertNull(XPathToCss.toCss(xpath), xpath);
+        }
+        Assert.assertNull(XPathToCss.rewrite(By.id("main")));
+    }
+
+    /**
+     * Test to verify that the profiler ranks locators by the total time spent looking them up.
+     */
+    @Test(groups = {"locator"})
+    public void verifyProfilerRanksSlowestLocators() {
+        LocatorProfiler profiler = new LocatorProfiler();
+        By cheap = By.id("cheap");
+        By frequent = By.xpath("//a[normalize-space()='Register']");
+        By slow = By.xpath("//div[contains(text(),'slow')]");
+        profiler.record(cheap, 1_000_000);
+        for (int i = 0; i < 10; i++) {
+            profiler.record(frequent, 3_000_000);
+        }
+        profiler.record(slow, 20_000_000);
+
+        List<LocatorProfiler.Stats> ranking = profiler.ranking();
+        Assert.assertEquals(ranking.get(0).locator(), frequent);
+        Assert.assertEquals(ranking.get(0).count(), 10);
+        Assert.assertEquals(ranking.get(0).meanNanos(), 3_000_000);
+        Assert.assertEquals(ranking.get(1).locator(), slow);
+        Assert.assertEquals(ranking.get(1).maxNanos(), 20_000_000);
+        Assert.assertEquals(ranking.get(2).locator(), cheap);
+        profiler.report(2);
+    }
+
+    /**
+     * Test to verify that a product card reads only the details that are requested, and each of them once.
+     */
+    @Test(groups = {"locator"})
+    public void verifyProductReadsDetailsOnDemand() {
+        List<String> located = new ArrayList<>();
+        WebElement card = (WebElement) Proxy.newProxyInstance(LocatorTest.class.getClassLoader(),
+                new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                    located.add(String.valueOf(args[0]));
+                    return stubElement(args[0].toString().contains("rating") ? "4.5 (12)" : "Kettle", false);
+                });
+        Product product = new Product(card);
+        Assert.assertTrue(located.isEmpty(), "Creating a product should not read the card.");
+
+        Assert.assertEquals(product.getName(), "Kettle");
+        Assert.assertEquals(product.getName(), "Kettle");
+        Assert.assertEquals(located.size(), 1, located.toString());
+
+        Assert.assertEquals(product.getRatingDetails().getRatersCount(), 12);
+        Assert.assertEquals(product.getProductType(), "sponsored");
+        Assert.assertEquals(located.size(), 2, located.toString());
+    }
+
+    /**
+     * A page object with one element field and one list field.
+     */
+    public static class StubPage {
+
+        @FindBy(id = "title")
+        private WebElement title;
+
+        @FindBy(className = "item")
+        private List<WebElement> items;
+    }
+
+    /**
+     * Creates a search context whose first located element is stale. Elements answer getText and getAttribute with their lookup.
+     */
+    private SearchContext stubContext() {
+        return (SearchContext) Proxy.newProxyInstance(LocatorTest.class.getClassLoader(),
+                new Class<?>[] {SearchContext.class}, (proxy, method, args) -> {
+                    int lookup = lookups.incrementAndGet();
+                    if ("findElement".equals(method.getName())) {
+                        return stubElement("title " + lookup, lookup == 1);
+                    }
+                    List<WebElement> elements = new ArrayList<>();
+                    for (int i = 0; i < 2; i++) {
+                        elements.add(stubElement("item " + i, lookup == 1));
+                    }
+                    return elements;
+                });
+    }
+
+    private static WebElement stubElement(String text, boolean stale) {
+        return (WebElement) Proxy.newProxyInstance(LocatorTest.class.getClassLoader(),
+                new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                    if (stale) {
+                        throw new StaleElementReferenceException("stub element is stale");
+                    }
+                    return "getText".equals(method.getName()) || "getAttribute".equals(method.getName()) ? text : null;
+                });
+    }
+}
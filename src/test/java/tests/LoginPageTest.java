@@ -1,26 +1,35 @@
 package tests;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.testng.Assert;
 import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import config.ConfigReader;
+import data.LoginRow;
 import logging.LoggingManager;
 import pages.HomePage;
 import pages.LoginPage;
 import utilities.DataProviderUtil;
 import utilities.DriverFactory;
+import utilities.SessionStore;
 
 /**
  * Test class for verifying the login functionality. This class contains
  * data-driven tests that verify successful and unsuccessful login attempts.
  */
+@Test(singleThreaded = true)
 public class LoginPageTest extends BaseTest {
 
 	private HomePage homePage;
 	private LoginPage loginPage;
 
+	// The nav bar shows a Login link only to anonymous users.
+	private static final By LOGIN_LINK = By.xpath("//a[normalize-space()='Login']");
+
 	/**
 	 * Setup method that runs before the test class. Initializes the WebDriver,
 	 * applies event listeners, and navigates to the login page.
@@ -41,27 +50,27 @@ public class LoginPageTest extends BaseTest {
 	 * Test to verify the login functionality. This test is data-driven and verifies
 	 * both successful and unsuccessful login attempts.
 	 *
-	 * @param caseNum           The identifier for the test case.
-	 * @param email             The email to be used for login.
-	 * @param password          The password to be used for login.
-	 * @param expectedResult    The expected result ("Success" for successful login,
-	 *                          error message for failure).
-	 * @param executionRequired Indicates whether this test case should be executed.
+	 * @param login The login test case, with the credentials and the expected result
+	 *              ("Success" for successful login, error message for failure).
 	 */
-	@Test(priority = 15, dataProvider = "loginData", dataProviderClass = DataProviderUtil.class, groups = {"login", "verification"})
-	public void verifyLogin(String caseNum, String email, String password, String expectedResult,
-			String executionRequired) {
+	@Test(priority = 15, dataProvider = "loginRows", dataProviderClass = DataProviderUtil.class, groups = {"login", "verification"})
+	public void verifyLogin(LoginRow login) {
 
-		LoggingManager.info("================ Starting Login Test [ " + caseNum + " ] ================");
+		LoggingManager.info("================ Starting Login Test [ " + login.getCaseNum() + " ] ================");
 
 		// Check if execution is required for this test case
-		if ("No".equalsIgnoreCase(executionRequired)) {
+		if (!login.isExecutionRequired()) {
 			LoggingManager.info("Skipping this test case as execution is not required");
 			throw new SkipException("Skipping this test case as execution is not required");
 		}
 
+		String expectedResult = login.getExpectedResult();
+
+		// A parallel invocation opens the login modal in its own browser
+		LoginPage loginPage = isParallelInvocation() ? new HomePage(getDriver()).navigateToLogin() : this.loginPage;
+
 		// Perform login with the provided email and password
-		loginPage.typeEmail(email).typePassword(password).submitLogin();
+		loginPage.typeEmail(login.getEmail()).typePassword(login.getPassword()).submitLogin();
 
 		// Validate the result based on the expected outcome
 		if ("Success".equalsIgnoreCase(expectedResult)) {
@@ -77,12 +86,60 @@ public class LoginPageTest extends BaseTest {
 	}
 
 	/**
-	 * Tear down method that runs after the test class. Closes the WebDriver
-	 * instance to end the session.
+	 * Test to verify that starting as a user logs in through the UI once, and that a logged-out
+	 * browser is logged in again from the stored session.
+	 */
+	@Test(priority = 16, groups = {"login", "session"})
+	public void verifyStartAsReusesStoredSession() {
+		LoggingManager.info("================ Starting Stored Session Test ================");
+		LoginRow login = findSuccessfulLogin();
+		SessionStore.invalidate(login.getEmail());
+
+		// The first start logs in through the login modal and stores the session
+		logOut();
+		HomePage.startAs(driver, login.getEmail(), login.getPassword());
+		Assert.assertTrue(driver.findElements(LOGIN_LINK).isEmpty(), "User should be logged in after the UI login.");
+
+		// The second start injects the stored session into the logged-out browser
+		logOut();
+		Assert.assertFalse(driver.findElements(LOGIN_LINK).isEmpty(), "User should be logged out before the restore.");
+		long start = System.nanoTime();
+		HomePage.startAs(driver, login.getEmail(), login.getPassword());
+		Assert.assertTrue(driver.findElements(LOGIN_LINK).isEmpty(), "User should be logged in from the stored session.");
+		LoggingManager.info("Session restored in " + (System.nanoTime() - start) / 1_000_000 + " ms -- Passed\n\n");
+
+		logOut();
+	}
+
+	/**
+	 * Finds a login test case that is expected to succeed.
+	 */
+	private LoginRow findSuccessfulLogin() {
+		for (Object[] row : new DataProviderUtil().getLoginRows()) {
+			LoginRow login = (LoginRow) row[0];
+			if ("Success".equalsIgnoreCase(login.getExpectedResult())) {
+				return login;
+			}
+		}
+		throw new SkipException("No successful login in the test data");
+	}
+
+	/**
+	 * Clears the browser's login state and opens the base URL as an anonymous user.
+	 */
+	private void logOut() {
+		driver.manage().deleteAllCookies();
+		((JavascriptExecutor) driver).executeScript("window.localStorage.clear();");
+		driver.get(ConfigReader.getProperty("base_url"));
+	}
+
+	/**
+	 * Tear down method that runs after the test class. Returns the WebDriver
+	 * instance to the driver pool.
 	 */
 	@AfterClass
 	public void tearDown() {
-		DriverFactory.quitDriver(); // Quit the WebDriver instance
-        LoggingManager.info("Driver quit successfully.");
+		DriverFactory.releaseDriver(); // Return the WebDriver instance to the pool
+        LoggingManager.info("Driver released successfully.");
 	}
 }
@@ -12,6 +12,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import components.Product;
+import data.ProductRow;
 import logging.LoggingManager;
 import pages.BasePage;
 import pages.HomePage;
@@ -23,6 +24,7 @@ import utilities.DataProviderUtil;
  * This class contains various tests to validate product retrieval, filtering, 
  * and the ability to add products to the cart.
  */
+@Test(singleThreaded = true)
 public class ProductsPageTest extends BaseTest{
 
     private ProductsPage productsPage;
@@ -44,7 +46,7 @@ public class ProductsPageTest extends BaseTest{
         productsPage = homePage.searchValidFor(searchProduct);
 
         // Set the WebDriver for reporting purposes
-        BasePage.reporter.setDriver(driver);
+        BasePage.getReporter().setDriver(driver);
         
         // Log the start of the products tests
         LoggingManager.info("\n\n*************** STARTING PRODUCTS TESTS **************");
@@ -130,27 +132,19 @@ public class ProductsPageTest extends BaseTest{
      * Test to verify the details of a product.
      * This test is data-driven and verifies product name, price, rating, and reviews.
      *
-     * @param productName         The expected name of the product.
-     * @param vendorName          The expected vendor name (optional).
-     * @param price               The expected price of the product.
-     * @param rating              The expected rating of the product.
-     * @param reviews             The expected number of reviews.
-     * @param category            The expected category of the product (optional).
-     * @param executionRequired   Indicates whether this test case should be executed.
+     * @param expectedProduct The expected product details from the "products" sheet.
      */
-    @Test(priority = 9, dataProvider = "productSearchData", dataProviderClass = DataProviderUtil.class, groups = {"products", "details"})
-    public void verifyProductDetails(String productName, String vendorName, String price, String rating, String reviews, String category, String executionRequired) {
+    @Test(priority = 9, dataProvider = "productRows", dataProviderClass = DataProviderUtil.class, groups = {"products", "details"})
+    public void verifyProductDetails(ProductRow expectedProduct) {
         LoggingManager.info("============= Starting test for verifyProductDetails ================");
 
         // Check if execution is required for this test case
-        if ("No".equalsIgnoreCase(executionRequired)) {
+        if (!expectedProduct.isExecutionRequired()) {
             throw new SkipException("Skipping this test case as execution is not required");
         }
 
-        // Convert price, rating, and reviews to appropriate data types
-        BigDecimal expectedPrice = new BigDecimal(price).setScale(2, RoundingMode.HALF_UP);
-        float expectedRating = (rating != null) ? Float.parseFloat(rating) : 0.0f;
-        int expectedReviews = (reviews != null) ? (int) Float.parseFloat(reviews) : 0;
+        String productName = expectedProduct.getProductName();
+        BigDecimal expectedPrice = expectedProduct.getPrice().setScale(2, RoundingMode.HALF_UP);
 
         // Search for the product by name
         Product product = homePage.searchValidFor(productName).getProduct(
@@ -159,8 +153,8 @@ public class ProductsPageTest extends BaseTest{
         // Assertions to verify product details
         Assert.assertEquals(product.getName().toLowerCase(), productName.toLowerCase(), "Product name does not match");
         Assert.assertEquals(product.getPrice(), expectedPrice, "Product price does not match");
-        Assert.assertEquals(product.getRatingDetails().getRating(), expectedRating, "Product rating does not match");
-        Assert.assertTrue(product.getRatingDetails().getRatersCount() >= expectedReviews, "Number of reviews does not match");
+        Assert.assertEquals(product.getRatingDetails().getRating(), expectedProduct.getRating(), "Product rating does not match");
+        Assert.assertTrue(product.getRatingDetails().getRatersCount() >= expectedProduct.getReviews(), "Number of reviews does not match");
 
         LoggingManager.info("Test for " + productName + " availability Passed!\n\n");
 
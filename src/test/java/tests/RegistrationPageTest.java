@@ -6,6 +6,7 @@ import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import data.RegistrationRow;
 import logging.LoggingManager;
 import pages.HomePage;
 import pages.RegistrationPage;
@@ -16,6 +17,7 @@ import utilities.DataProviderUtil;
  * data-driven testing with TestNG's DataProvider to run multiple test scenarios
  * for the registration functionality.
  */
+@Test(singleThreaded = true)
 public class RegistrationPageTest extends BaseTest{
 
 	private HomePage homePage;
@@ -40,33 +42,34 @@ public class RegistrationPageTest extends BaseTest{
 	 * Test method for verifying the registration functionality. This method is
 	 * data-driven and runs multiple test scenarios based on the provided data.
 	 *
-	 * @param caseNum           The test case number.
-	 * @param firstName         The first name of the user.
-	 * @param lastName          The last name of the user.
-	 * @param email             The email address of the user.
-	 * @param password          The password for the account.
-	 * @param mobileNumber      The mobile number of the user.
-	 * @param expectedResult    The expected result of the test (e.g., "Success" or an error message).
-	 * @param executionRequired Indicates whether this test case should be executed.
+	 * @param registration The registration test case, with the user details and the expected
+	 *                     result (e.g., "Success" or an error message).
 	 */
-	@Test(priority = 16, dataProvider = "registrationData", dataProviderClass = DataProviderUtil.class, groups = {"registration", "verification"})
-	public void verifyRegistration(String caseNum, String firstName, String lastName, String email, String password,
-			String mobileNumber, String expectedResult, String executionRequired) {
+	@Test(priority = 16, dataProvider = "registrationRows", dataProviderClass = DataProviderUtil.class, groups = {"registration", "verification"})
+	public void verifyRegistration(RegistrationRow registration) {
 
-		LoggingManager.info("================ Starting Registration Test [ " + caseNum + " ] ================");
+		LoggingManager.info("================ Starting Registration Test [ " + registration.getCaseNum() + " ] ================");
 
 		// Skip test case if execution is not required
-		if ("No".equalsIgnoreCase(executionRequired)) {
+		if (!registration.isExecutionRequired()) {
 			LoggingManager.info("Skipping this test case as execution is not required");
 			throw new SkipException("Skipping this test case as execution is not required");
 		}
 
+		String expectedResult = registration.getExpectedResult();
+
+		// A parallel invocation opens the registration page in its own browser
+		if (isParallelInvocation()) {
+			new HomePage(getDriver()).navigateToRegister();
+		}
+
 		// Initialize the RegistrationPage object
-		RegistrationPage registrationPage = new RegistrationPage(driver);
+		RegistrationPage registrationPage = new RegistrationPage(getDriver());
 
 		// Fill in the registration form
-		registrationPage = registrationPage.typeFirstname(firstName).typeLastname(lastName).typeEmail(email)
-				.typePassword(password).typeMobileNumber(mobileNumber);
+		registrationPage = registrationPage.typeFirstname(registration.getFirstName())
+				.typeLastname(registration.getLastName()).typeEmail(registration.getEmail())
+				.typePassword(registration.getPassword()).typeMobileNumber(registration.getMobileNumber());
 
 		// Handle expected results based on the provided data
 		if (expectedResult.equals("Success")) {
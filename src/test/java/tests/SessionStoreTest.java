@@ -0,0 +1,172 @@
+package tests;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import utilities.SessionStore;
+
+/**
+ * Test class for verifying how SessionStore captures, restores, expires and shares the login state of a user.
+ * These tests run against stub browsers and do not need a browser.
+ */
+public class SessionStoreTest {
+
+    // A stub browser shows a logged-in user when it holds the session cookie.
+    private static final Predicate<WebDriver> LOGGED_IN =
+            driver -> driver.manage().getCookieNamed("sid") != null;
+
+    /**
+     * Test to verify that the cookies and localStorage captured from one browser log another one in.
+     */
+    @Test(groups = {"session"})
+    public void verifyStoredSessionIsRestored() {
+        StubBrowser loggedIn = new StubBrowser();
+        loggedIn.cookies.add(new Cookie("sid", "1"));
+        loggedIn.localStorage.put("token", "abc");
+        SessionStore.store(loggedIn.driver, "restored@example.com");
+
+        StubBrowser fresh = new StubBrowser();
+        Assert.assertTrue(SessionStore.restore(fresh.driver, "restored@example.com", LOGGED_IN));
+        Assert.assertEquals(fresh.localStorage.get("token"), "abc");
+        Assert.assertEquals(fresh.refreshes, 1, "The browser should be reloaded once with the injected session.");
+        Assert.assertFalse(SessionStore.restore(fresh.driver, "unknown@example.com", LOGGED_IN));
+    }
+
+    /**
+     * Test to verify that an expired session is discarded and the user is logged in through the UI again.
+     */
+    @Test(groups = {"session"})
+    public void verifyExpiredSessionIsLoggedInAgain() {
+        StubBrowser loggedIn = new StubBrowser();
+        loggedIn.cookies.add(new Cookie("sid", "1"));
+        SessionStore.store(loggedIn.driver, "expired@example.com", Duration.ofMillis(-1));
+
+        StubBrowser fresh = new StubBrowser();
+        AtomicInteger uiLogins = new AtomicInteger();
+        SessionStore.startAs(fresh.driver, "expired@example.com", () -> {
+            uiLogins.incrementAndGet();
+            fresh.cookies.add(new Cookie("sid", "2"));
+        }, LOGGED_IN);
+
+        Assert.assertEquals(uiLogins.get(), 1);
+        Assert.assertEquals(fresh.refreshes, 0, "An expired session should not be injected.");
+    }
+
+    /**
+     * Test to verify that threads needing the same user at once log in through the UI only once, and
+     * the others get the stored session.
+     */
+    @Test(groups = {"session"})
+    public void verifyConcurrentStartsLogInOnce() {
+        AtomicInteger uiLogins = new AtomicInteger();
+        StubBrowser[] browsers = {new StubBrowser(), new StubBrowser(), new StubBrowser()};
+        CompletableFuture<?>[] starts = new CompletableFuture<?>[browsers.length];
+        for (int i = 0; i < browsers.length; i++) {
+            StubBrowser browser = browsers[i];
+            starts[i] = CompletableFuture.runAsync(() -> SessionStore.startAs(browser.driver, "shared@example.com", () -> {
+                uiLogins.incrementAndGet();
+                sleep(200);
+                browser.cookies.add(new Cookie("sid", "1"));
+            }, LOGGED_IN));
+        }
+        CompletableFuture.allOf(starts).join();
+
+        Assert.assertEquals(uiLogins.get(), 1);
+        for (StubBrowser browser : browsers) {
+            Assert.assertTrue(LOGGED_IN.test(browser.driver));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A browser that keeps cookies, localStorage and the current URL in memory and counts reloads.
+     */
+    private static final class StubBrowser {
+
+        private final Set<Cookie> cookies = new HashSet<>();
+        private final Map<String, String> localStorage = new HashMap<>();
+        private String url = "about:blank";
+        private int refreshes;
+
+        private final WebDriver driver = (WebDriver) Proxy.newProxyInstance(SessionStoreTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCurrentUrl":
+                            return url;
+                        case "get":
+                            url = (String) args[0];
+                            return null;
+                        case "manage":
+                            return options();
+                        case "navigate":
+                            return navigation();
+                        case "executeScript":
+                            return script((String) args[0], (Object[]) args[1]);
+                        default:
+                            return null;
+                    }
+                });
+
+        @SuppressWarnings("unchecked")
+        private synchronized Object script(String script, Object[] args) {
+            if (script.startsWith("return")) {
+                return new HashMap<>(localStorage);
+            }
+            localStorage.clear();
+            localStorage.putAll((Map<String, String>) args[0]);
+            return null;
+        }
+
+        private WebDriver.Options options() {
+            return (WebDriver.Options) Proxy.newProxyInstance(SessionStoreTest.class.getClassLoader(),
+                    new Class<?>[] {WebDriver.Options.class}, (proxy, method, args) -> {
+                        synchronized (this) {
+                            switch (method.getName()) {
+                                case "getCookies":
+                                    return new HashSet<>(cookies);
+                                case "getCookieNamed":
+                                    return cookies.stream().filter(c -> c.getName().equals(args[0])).findFirst().orElse(null);
+                                case "addCookie":
+                                    cookies.add((Cookie) args[0]);
+                                    return null;
+                                case "deleteAllCookies":
+                                    cookies.clear();
+                                    return null;
+                                default:
+                                    return null;
+                            }
+                        }
+                    });
+        }
+
+        private WebDriver.Navigation navigation() {
+            return (WebDriver.Navigation) Proxy.newProxyInstance(SessionStoreTest.class.getClassLoader(),
+                    new Class<?>[] {WebDriver.Navigation.class}, (proxy, method, args) -> {
+                        if ("refresh".equals(method.getName())) {
+                            refreshes++;
+                        }
+                        return null;
+                    });
+        }
+    }
+}
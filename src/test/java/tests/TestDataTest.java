@@ -0,0 +1,335 @@
+package tests;
+
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import data.KeyIndex;
+import data.LoginRow;
+import data.ProductRow;
+import data.RowMapper;
+import data.SearchRow;
+import data.SheetTable;
+import data.SnapshotFile;
+import data.TestDataWatcher;
+import data.TestDataStore;
+import data.WorkbookSnapshot;
+import file.ExcelReader;
+import logging.LoggingManager;
+import utilities.DataProviderUtil;
+
+/**
+ * Test class for verifying the test data layer behind DataProviderUtil.
+ * These tests read testdata.xlsx only and do not need a browser.
+ */
+public class TestDataTest {
+
+    private final ExcelReader excelReader = new ExcelReader(TestDataStore.DATA_PATH.toString());
+    private final DataProviderUtil dataUtil = new DataProviderUtil();
+
+    /**
+     * Test to verify that every DataProvider returns exactly what the ExcelReader based implementation returned.
+     */
+    @Test(groups = {"data"})
+    public void verifyProvidersMatchExcelReader() {
+        Assert.assertEquals(dataUtil.getSearchData(), readRows("search data", excelReader.getRowCount("search data") - 1, 0, 3));
+        Assert.assertEquals(dataUtil.getRegistrationData(), readRows("registration form", excelReader.getRowCount("registration form"), 0, 8));
+        Assert.assertEquals(dataUtil.getLoginData(), readRows("login form", excelReader.getRowCount("login form"), 0, 5));
+        Assert.assertEquals(dataUtil.getProductSearchData(), readRows("products", excelReader.getRowCount("products"), 2, 9));
+    }
+
+    /**
+     * Test to verify that key lookups return the same values as the ExcelReader.
+     */
+    @Test(groups = {"data"})
+    public void verifyKeyLookupsMatchExcelReader() {
+        for (String key : new String[] {"home_page_title", "cart_page_title", "search_product", "cart_product", "missing"}) {
+            Assert.assertEquals(dataUtil.getValue("common info", key), excelReader.getValue("common info", key), key);
+        }
+        for (String testName : new String[] {"verifyCartIsEmpty", "verifyLogin", "verifyRegistration", "missing"}) {
+            Assert.assertEquals(DataProviderUtil.getExecutionStatus(testName), excelReader.getValue("execution", testName), testName);
+        }
+    }
+
+    /**
+     * Test to verify that composite key lookups find the same rows as a linear scan, and that the index
+     * is built once and shared by concurrent readers.
+     */
+    @Test(groups = {"data"})
+    public void verifyCompositeKeyLookups() throws Exception {
+        WorkbookSnapshot snapshot = WorkbookSnapshot.load(TestDataStore.DATA_PATH);
+        SheetTable sheet = snapshot.getSheet("registration form");
+        int[] keyColumns = {0, 3};
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<KeyIndex>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> sheet.getIndex(keyColumns)));
+            }
+            for (Future<KeyIndex> future : futures) {
+                Assert.assertSame(future.get(), sheet.getIndex(0, 3), "Index should be built once.");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int row = 1; row < sheet.getRowSlots(); row++) {
+            String id = sheet.getCellValue(row, 0);
+            String email = sheet.getCellValue(row, 3);
+            if (id == null || email == null) {
+                continue;
+            }
+            Assert.assertEquals(sheet.getIndex(keyColumns).getFirstRow(id, email), firstRow(sheet, id, email), id);
+            Assert.assertEquals(dataUtil.getValue("registration form", keyColumns, new String[] {id, email}, 4),
+                    excelReader.getCellValue("registration form", firstRow(sheet, id, email), 4), id);
+        }
+        Assert.assertEquals(sheet.getIndex(keyColumns).getFirstRow("missing", "missing"), -1);
+        Assert.assertNull(dataUtil.getValue("registration form", keyColumns, new String[] {"missing", null}, 4));
+    }
+
+    /**
+     * Test to verify that the typed DataProviders bind the same cells as the string based ones.
+     */
+    @Test(groups = {"data"})
+    public void verifyTypedRowsMatchProviders() {
+        Object[][] searchData = dataUtil.getSearchData();
+        Object[][] searchRows = dataUtil.getSearchRows();
+        Assert.assertEquals(searchRows.length, searchData.length);
+        for (int i = 0; i < searchRows.length; i++) {
+            SearchRow row = (SearchRow) searchRows[i][0];
+            Assert.assertEquals(new Object[] {row.getQueryName(), row.getSearchValue(), row.getExpected()}, searchData[i]);
+        }
+
+        Object[][] loginData = dataUtil.getLoginData();
+        Object[][] loginRows = dataUtil.getLoginRows();
+        Assert.assertEquals(loginRows.length, loginData.length);
+        for (int i = 0; i < loginRows.length; i++) {
+            LoginRow row = (LoginRow) loginRows[i][0];
+            Assert.assertEquals(new Object[] {row.getCaseNum(), row.getEmail(), row.getPassword(), row.getExpectedResult()},
+                    Arrays.copyOf(loginData[i], 4));
+            Assert.assertEquals(row.isExecutionRequired(), !"No".equalsIgnoreCase((String) loginData[i][4]));
+        }
+
+        Object[][] productData = dataUtil.getProductSearchData();
+        Object[][] productRows = dataUtil.getProductRows();
+        Assert.assertEquals(productRows.length, productData.length);
+        for (int i = 0; i < productRows.length; i++) {
+            ProductRow row = (ProductRow) productRows[i][0];
+            Assert.assertEquals(row.getProductName(), productData[i][0]);
+            Assert.assertEquals(row.getPrice(), new BigDecimal((String) productData[i][2]));
+            Assert.assertEquals(row.getRating(), Float.parseFloat((String) productData[i][3]));
+            Assert.assertEquals(row.getReviews(), (int) Float.parseFloat((String) productData[i][4]));
+        }
+
+        Assert.assertSame(RowMapper.of(ProductRow.class), RowMapper.of(ProductRow.class), "Mapper should be cached.");
+    }
+
+    /**
+     * Test to verify that the streaming DataProviders return the same rows as the array based ones.
+     */
+    @Test(groups = {"data"})
+    public void verifyStreamingProvidersMatchSnapshot(Method method) {
+        Assert.assertEquals(drain(dataUtil.streamSearchData(method)), dataUtil.getSearchData());
+        Assert.assertEquals(drain(dataUtil.streamProductSearchData(method)), dataUtil.getProductSearchData());
+    }
+
+    /**
+     * Test to verify that a streaming DataProvider that is abandoned after one row stops its parser thread
+     * when its test class finishes.
+     */
+    @Test(groups = {"data"})
+    public void verifyAbandonedStreamIsClosed(Method method) throws Exception {
+        Iterator<Object[]> rows = dataUtil.streamProductSearchData(method);
+        Assert.assertTrue(rows.hasNext());
+        rows.next();
+
+        DataProviderUtil.closeStreams(getClass());
+        long deadline = System.currentTimeMillis() + 2000;
+        while (isStreaming("products") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertFalse(isStreaming("products"), "A closed stream should stop its parser thread.");
+    }
+
+    /**
+     * Checks whether a parser thread for the sheet is still running.
+     */
+    private static boolean isStreaming(String sheetName) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.isAlive() && thread.getName().equals("test-data-stream-" + sheetName));
+    }
+
+    /**
+     * Test to verify that a compiled snapshot maps back to the same cells and key lookups as the workbook,
+     * and that it is rejected once the workbook no longer matches.
+     */
+    @Test(groups = {"data"})
+    public void verifyCompiledSnapshotMatchesWorkbook() throws Exception {
+        Path compiled = Files.createTempFile("testdata", ".bin");
+        Path copy = Files.createTempFile("testdata", ".xlsx");
+        try {
+            Files.copy(TestDataStore.DATA_PATH, copy, StandardCopyOption.REPLACE_EXISTING);
+            WorkbookSnapshot parsed = WorkbookSnapshot.load(copy);
+            SnapshotFile.write(parsed, copy, compiled);
+
+            WorkbookSnapshot mapped = SnapshotFile.map(compiled, copy);
+            Assert.assertNotNull(mapped, "Fresh snapshot should be mapped.");
+            Assert.assertEquals(mapped.getSheets().keySet(), parsed.getSheets().keySet());
+            for (SheetTable sheet : parsed.getSheets().values()) {
+                SheetTable other = mapped.getSheet(sheet.getName());
+                Assert.assertEquals(other.getRowCount(), sheet.getRowCount(), sheet.getName());
+                for (int row = 0; row <= sheet.getRowSlots(); row++) {
+                    for (int col = 0; col <= sheet.getColumnSlots(); col++) {
+                        Assert.assertEquals(other.getCellValue(row, col), sheet.getCellValue(row, col), sheet.getName());
+                    }
+                    String key = sheet.getCellValue(row, 0);
+                    if (key != null) {
+                        Assert.assertEquals(other.getValue(key), sheet.getValue(key), sheet.getName() + "/" + key);
+                    }
+                }
+                Assert.assertNull(other.getValue("missing"));
+            }
+
+            Files.write(copy, new byte[] {1}, StandardOpenOption.APPEND);
+            Assert.assertNull(SnapshotFile.map(compiled, copy), "Stale snapshot should be rejected.");
+        } finally {
+            Files.deleteIfExists(compiled);
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /**
+     * Test to verify that a reload re-parses only the sheet that changed and publishes a snapshot equal to a full parse.
+     */
+    @Test(groups = {"data"})
+    public void verifyWatcherReloadsChangedSheetsOnly() throws Exception {
+        Path copy = Files.createTempFile("testdata", ".xlsx");
+        try {
+            // Rewrite the workbook once so both versions are serialized the same way.
+            writeProductPrice(copy, null);
+            AtomicReference<WorkbookSnapshot> published = new AtomicReference<>(WorkbookSnapshot.load(copy));
+            WorkbookSnapshot before = published.get();
+            TestDataWatcher watcher = new TestDataWatcher(copy, published::get, published::set);
+            Assert.assertNull(watcher.reload(), "Unchanged workbook should not be reloaded.");
+
+            writeProductPrice(copy, 1234.0);
+            WorkbookSnapshot after = watcher.reload();
+            Assert.assertNotNull(after, "Changed workbook should be reloaded.");
+            Assert.assertSame(published.get(), after);
+            Assert.assertEquals(after.getCellValue("products", 1, 4), "1234.0");
+            Assert.assertEquals(before.getCellValue("products", 1, 4), "27078.0", "Previous snapshot must not change.");
+
+            WorkbookSnapshot parsed = WorkbookSnapshot.load(copy);
+            for (SheetTable sheet : parsed.getSheets().values()) {
+                SheetTable reloaded = after.getSheet(sheet.getName());
+                if (!sheet.getName().equals("products")) {
+                    Assert.assertSame(reloaded, before.getSheet(sheet.getName()), "Unchanged sheet should be reused.");
+                }
+                Assert.assertEquals(reloaded.getRowCount(), sheet.getRowCount(), sheet.getName());
+                for (int row = 0; row <= sheet.getRowSlots(); row++) {
+                    for (int col = 0; col <= sheet.getColumnSlots(); col++) {
+                        Assert.assertEquals(reloaded.getCellValue(row, col), sheet.getCellValue(row, col), sheet.getName());
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /**
+     * Test to measure the registration DataProvider against the ExcelReader based implementation.
+     * The snapshot is reloaded from disk so the measured time includes the one-off parse.
+     */
+    @Test(groups = {"data", "benchmark"})
+    public void verifySnapshotIsFasterThanExcelReader() throws Exception {
+        long start = System.nanoTime();
+        Object[][] expected = readRows("registration form", excelReader.getRowCount("registration form"), 0, 8);
+        long excelReaderNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        WorkbookSnapshot snapshot = WorkbookSnapshot.load(TestDataStore.DATA_PATH);
+        Object[][] actual = new Object[snapshot.getRowCount("registration form")][8];
+        for (int i = 0; i < actual.length; i++) {
+            for (int j = 0; j < 8; j++) {
+                actual[i][j] = snapshot.getCellValue("registration form", i + 1, j);
+            }
+        }
+        long snapshotNanos = System.nanoTime() - start;
+
+        String result = String.format("registrationData: ExcelReader %d ms, snapshot %d ms (%.1fx faster)",
+                excelReaderNanos / 1_000_000, snapshotNanos / 1_000_000, (double) excelReaderNanos / snapshotNanos);
+        LoggingManager.info(result);
+        Reporter.log(result);
+
+        Assert.assertEquals(actual, expected);
+        Assert.assertTrue(snapshotNanos < excelReaderNanos, result);
+    }
+
+    /**
+     * Finds the first row with the given ID and email address by scanning the sheet.
+     */
+    private int firstRow(SheetTable sheet, String id, String email) {
+        for (int row = 0; row < sheet.getRowSlots(); row++) {
+            if (id.equals(sheet.getCellValue(row, 0)) && email.equals(sheet.getCellValue(row, 3))) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the test data workbook to a file, optionally changing the price of the first product.
+     */
+    private void writeProductPrice(Path target, Double price) throws Exception {
+        try (Workbook workbook = new XSSFWorkbook(Files.newInputStream(TestDataStore.DATA_PATH))) {
+            if (price != null) {
+                workbook.getSheet("products").getRow(1).getCell(4).setCellValue(price);
+            }
+            try (OutputStream output = Files.newOutputStream(target)) {
+                workbook.write(output);
+            }
+        }
+    }
+
+    /**
+     * Collects every row of a streaming DataProvider.
+     */
+    private Object[][] drain(Iterator<Object[]> rows) {
+        List<Object[]> data = new ArrayList<>();
+        rows.forEachRemaining(data::add);
+        return data.toArray(new Object[0][]);
+    }
+
+    /**
+     * Reads a block of cells with the ExcelReader, one workbook parse per cell.
+     */
+    private Object[][] readRows(String sheetName, int rowCount, int firstCol, int endCol) {
+        Object[][] data = new Object[rowCount][endCol - firstCol];
+        for (int i = 0; i < rowCount; i++) {
+            for (int j = firstCol; j < endCol; j++) {
+                data[i][j - firstCol] = excelReader.getCellValue(sheetName, i + 1, j);
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,226 @@
+package tests;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ByChained;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import logging.LoggingManager;
+import utilities.ElementCheck;
+import utilities.PollingSchedule;
+import utilities.WaitEngine;
+import utilities.WaitTelemetry;
+
+/**
+ * Test class for verifying the polling, batched checks and telemetry behind WaitEngine.
+ * These tests run against a stub driver and do not need a browser.
+ */
+public class WaitEngineTest {
+
+    // When the simulated conditions start to hold, in milliseconds after the wait starts.
+    private static final long[] READY_AFTER_MILLIS = {5, 20, 50, 120, 300, 700};
+
+    // Simulated cost of one condition check, roughly a command round trip to a local driver.
+    private static final long CHECK_COST_MILLIS = 5;
+
+    // Script calls made through the stub driver.
+    private final AtomicInteger scriptCalls = new AtomicInteger();
+
+    private final WaitEngine waitEngine = new WaitEngine(stubDriver(), null);
+
+    /**
+     * Test to verify that the adaptive schedule grows from its first interval up to its maximum.
+     */
+    @Test(groups = {"wait"})
+    public void verifyScheduleBacksOffToMaximum() {
+        PollingSchedule schedule = PollingSchedule.exponential(Duration.ofMillis(10), Duration.ofMillis(500), 2.0);
+        Duration interval = schedule.initial();
+        Assert.assertEquals(interval, Duration.ofMillis(10));
+        for (long expected : new long[] {20, 40, 80, 160, 320, 500, 500}) {
+            interval = schedule.next(interval);
+            Assert.assertEquals(interval.toMillis(), expected);
+        }
+
+        PollingSchedule fixed = PollingSchedule.fixed(Duration.ofMillis(500));
+        Assert.assertEquals(fixed.next(fixed.initial()), Duration.ofMillis(500));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> PollingSchedule.exponential(Duration.ofMillis(500), Duration.ofMillis(10), 2.0));
+    }
+
+    /**
+     * Test to verify that a wait that never succeeds still times out with the schedule in the message.
+     */
+    @Test(groups = {"wait"})
+    public void verifyAdaptiveWaitTimesOut() {
+        TimeoutException timeout = Assert.expectThrows(TimeoutException.class,
+                () -> waitEngine.waitFor(driver -> false, 1, PollingSchedule.adaptive()));
+        Assert.assertTrue(timeout.getMessage().contains("polling every"), timeout.getMessage());
+    }
+
+    /**
+     * Benchmark: waits for conditions that hold after a range of delays, once with the old fixed 500 ms polling and
+     * once with the adaptive schedule, and compares the slack, i.e. the time waited after the condition held.
+     */
+    @Test(groups = {"wait"})
+    public void verifyAdaptivePollingRemovesWaitSlack() {
+        long[] fixed = measureSlack(PollingSchedule.fixed(Duration.ofMillis(500)));
+        long[] adaptive = measureSlack(PollingSchedule.adaptive());
+
+        String summary = String.format("Wait slack over %d waits: fixed 500 ms %d ms in %d checks, adaptive %d ms in %d checks",
+                READY_AFTER_MILLIS.length, fixed[0], fixed[1], adaptive[0], adaptive[1]);
+        LoggingManager.info(summary);
+        Reporter.log(summary);
+        Assert.assertTrue(adaptive[0] < fixed[0], summary);
+    }
+
+    /**
+     * Test to verify that a batch of element checks is sent as one script and waited on until any of them holds.
+     */
+    @Test(groups = {"wait"})
+    public void verifyBatchCheckUsesOneScriptCall() {
+        boolean[] holds = waitEngine.waitForAny(null, 1,
+                ElementCheck.visible(By.className("missing")), ElementCheck.clickable(By.cssSelector("button.ready")));
+        Assert.assertEquals(holds, new boolean[] {false, true});
+        Assert.assertEquals(scriptCalls.get(), 1);
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ElementCheck.visible(new ByChained(By.id("outer"), By.id("inner"))));
+    }
+
+    /**
+     * Test to verify that wait telemetry survives a save and load and tunes timeouts from the recorded percentile.
+     */
+    @Test(groups = {"wait"})
+    public void verifyTelemetryPersistsAndTunesTimeouts() throws Exception {
+        Path file = Files.createTempFile("wait-telemetry", ".tsv");
+        try {
+            WaitTelemetry recorded = new WaitTelemetry(file, "propose", 99, 1.25);
+            for (int i = 1; i <= 100; i++) {
+                recorded.record("LoginPage.enterEmail visible email", TimeUnit.MILLISECONDS.toNanos(i * 20L), false);
+            }
+            recorded.record("CartPage.isVisible visible cart", TimeUnit.SECONDS.toNanos(3), true);
+            recorded.save();
+
+            WaitTelemetry tuned = new WaitTelemetry(file, "apply", 99, 1.25);
+            // p99 of 20..2000 ms is 1980 ms, reported as its bucket bound of about 2020 ms; 1.25 times that is 3 seconds.
+            Assert.assertEquals(tuned.proposeTimeouts(), Map.of("LoginPage.enterEmail visible email", 3));
+            Assert.assertEquals(tuned.timeoutFor("LoginPage.enterEmail visible email", 10), 3);
+            Assert.assertEquals(tuned.timeoutFor("LoginPage.enterEmail visible email", 2), 2);
+            Assert.assertEquals(tuned.timeoutFor("CartPage.isVisible visible cart", 20), 20, "Too few samples to tune");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test to verify that telemetry keys name the calling method and do not change between runs or edits.
+     */
+    @Test(groups = {"wait"})
+    public void verifyTelemetryKeysAreStable() {
+        String key = WaitTelemetry.key("visible [[ChromeDriver: chrome on linux (4f1c)] -> css selector: .cart]");
+        Assert.assertEquals(key, "WaitEngineTest.verifyTelemetryKeysAreStable visible [css selector: .cart]");
+    }
+
+    /**
+     * Test to verify that when the page reports a condition that Selenium does not confirm yet, the wait
+     * checks again on the polling schedule instead of sleeping a whole slice until the next mutation.
+     */
+    @Test(groups = {"wait"})
+    public void verifyDisagreeingPageIsPolledAgain() {
+        long readyAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+        List<Long> mutationWaits = new ArrayList<>();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(WaitEngineTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if (!"executeAsyncScript".equals(method.getName())) {
+                        return null;
+                    }
+                    Object[] scriptArgs = (Object[]) args[1];
+                    if (!"mutation".equals(scriptArgs[1])) {
+                        // The in-page check already holds.
+                        return true;
+                    }
+                    // The change Selenium waits for never mutates the DOM.
+                    long millis = ((Number) scriptArgs[3]).longValue();
+                    mutationWaits.add(millis);
+                    sleep(millis);
+                    return false;
+                });
+        WebElement element = (WebElement) Proxy.newProxyInstance(WaitEngineTest.class.getClassLoader(),
+                new Class<?>[] {WebElement.class},
+                (proxy, method, args) -> "isDisplayed".equals(method.getName()) ? System.nanoTime() >= readyAt : null);
+
+        long start = System.nanoTime();
+        new WaitEngine(driver, null).waitForElementToBeVisible(element, 5);
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertTrue(waited < 1500, "Waited " + waited + " ms for a condition that held after 300 ms");
+        Assert.assertTrue(mutationWaits.stream().allMatch(millis -> millis <= 500), mutationWaits.toString());
+    }
+
+    /**
+     * Runs one wait per delay and sums up the slack and the number of checks.
+     *
+     * @return The total slack in milliseconds and the total number of checks.
+     */
+    private long[] measureSlack(PollingSchedule schedule) {
+        long slack = 0;
+        long checks = 0;
+        for (long readyAfter : READY_AFTER_MILLIS) {
+            long start = System.nanoTime();
+            long readyAt = start + TimeUnit.MILLISECONDS.toNanos(readyAfter);
+            long[] count = {0};
+            Function<WebDriver, Boolean> condition = driver -> {
+                count[0]++;
+                sleep(CHECK_COST_MILLIS);
+                return System.nanoTime() >= readyAt;
+            };
+            waitEngine.waitFor(condition, 5, schedule);
+            slack += TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - readyAt);
+            checks += count[0];
+        }
+        return new long[] {slack, checks};
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates a driver that accepts every call. Scripts report the first check as failing and the others as holding.
+     */
+    private WebDriver stubDriver() {
+        return (WebDriver) Proxy.newProxyInstance(WaitEngineTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if (!"executeScript".equals(method.getName())) {
+                        return null;
+                    }
+                    scriptCalls.incrementAndGet();
+                    List<?> checks = (List<?>) ((Object[]) args[1])[1];
+                    List<Boolean> results = new ArrayList<>();
+                    for (int i = 0; i < checks.size(); i++) {
+                        results.add(i > 0);
+                    }
+                    return results;
+                });
+    }
+}